@@ -0,0 +1,60 @@
+package com.project.algorithms.base;
+
+import com.project.model.Dataset;
+import com.project.model.Itemset;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmark of MiningAlgorithm.savePattern (Top-K maintenance + closed checks)
+ * on a fixed-seed stream of candidates. Lives in the base package to reach the
+ * protected method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class SavePatternBenchmark {
+    private static final int CANDIDATES = 10_000;
+
+    @Param({"10", "100", "500"})
+    public int k;
+
+    private Itemset[] candidates;
+    private Harness harness;
+
+    /** Minimal concrete miner exposing the shared Top-K machinery */
+    static class Harness extends MiningAlgorithm {
+        @Override
+        public Stats runAlgorithm(Dataset db, int k) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void generate() {
+        Random random = new Random(42);
+        candidates = new Itemset[CANDIDATES];
+        for (int i = 0; i < CANDIDATES; i++) {
+            int[] items = random.ints(1 + random.nextInt(4), 0, 200).distinct().toArray();
+            // Few distinct supports so the closed-check groups actually fill up
+            double support = 1 + random.nextInt(50);
+            candidates[i] = new Itemset(items, random.nextDouble() * 10_000, support);
+        }
+        harness = new Harness();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CANDIDATES)
+    public int savePattern() {
+        harness.initRun(k); // No memory tracker: its MXBean listeners are not part of savePattern
+        for (Itemset candidate : candidates) {
+            harness.savePattern(candidate);
+        }
+        return harness.topK.size();
+    }
+}
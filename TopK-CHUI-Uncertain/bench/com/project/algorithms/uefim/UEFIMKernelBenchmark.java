@@ -0,0 +1,57 @@
+package com.project.algorithms.uefim;
+
+import com.project.manager.DataLoader;
+import com.project.model.Dataset;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmark of one U-EFIM projection step on the full database.
+ * Lives in the uefim package to reach the package-private kernel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class UEFIMKernelBenchmark {
+
+    @Param({"data/foodmart.txt"})
+    public String dataPath;
+
+    private UEFIM_Miner miner;
+    private ProjectedDatabase initialDb;
+    private Map<Integer, Double> subTreeUtility;
+    private int itemX;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        Dataset db = DataLoader.load(dataPath);
+        miner = new UEFIM_Miner();
+        initialDb = miner.buildInitialDatabase(db);
+
+        // Same sub-tree utilities the search computes at the root
+        subTreeUtility = new HashMap<>();
+        for (int i = 0; i < initialDb.size(); i++) {
+            for (int item : initialDb.trans[i]) {
+                subTreeUtility.merge(item, initialDb.weights[i], Double::sum);
+            }
+        }
+
+        // Project on the median-TWU item: a representative root branch
+        List<Integer> items = new ArrayList<>(subTreeUtility.keySet());
+        items.sort((a, b) -> Double.compare(subTreeUtility.get(a), subTreeUtility.get(b)));
+        itemX = items.get(items.size() / 2);
+    }
+
+    @Benchmark
+    public ProjectedDatabase project() {
+        return miner.project(initialDb, itemX, subTreeUtility);
+    }
+}
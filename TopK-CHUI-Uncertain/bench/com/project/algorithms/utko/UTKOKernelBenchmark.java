@@ -0,0 +1,53 @@
+package com.project.algorithms.utko;
+
+import com.project.manager.DataLoader;
+import com.project.model.Dataset;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmark of UTKO_Miner.construct: joins one first-level Utility List
+ * with every following list (the work done for a single search node).
+ * Lives in the utko package to reach the package-private kernel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class UTKOKernelBenchmark {
+
+    @Param({"data/foodmart.txt"})
+    public String dataPath;
+
+    private UTKO_Miner miner;
+    private List<UtilityList> firstLevel;
+    private UtilityList x;
+    private int xIndex;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        Dataset db = DataLoader.load(dataPath);
+        miner = new UTKO_Miner();
+        firstLevel = miner.buildInitialUtilityLists(db);
+
+        // Join from the longest list: the most expensive node of the first level
+        for (int i = 0; i < firstLevel.size(); i++) {
+            if (x == null || firstLevel.get(i).getElements().size() > x.getElements().size()) {
+                x = firstLevel.get(i);
+                xIndex = i;
+            }
+        }
+    }
+
+    @Benchmark
+    public void construct(Blackhole bh) {
+        for (int j = xIndex + 1; j < firstLevel.size(); j++) {
+            bh.consume(miner.construct(x, firstLevel.get(j), null));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.project.algorithms.utku;
+
+import com.project.manager.DataLoader;
+import com.project.model.Dataset;
+import com.project.model.Item;
+import com.project.model.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmark of UPTree.addTransaction: builds the global U-TKU tree
+ * from pre-sorted transactions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class UPTreeBenchmark {
+
+    @Param({"data/foodmart.txt"})
+    public String dataPath;
+
+    private List<List<Item>> sortedTransactions;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        Dataset db = DataLoader.load(dataPath);
+        Map<Integer, Double> twu = db.calculateTWUs();
+
+        // Same ordering as UTKU_Miner: descending ETWU
+        sortedTransactions = new ArrayList<>();
+        for (Transaction t : db.getTransactions()) {
+            List<Item> sortedItems = new ArrayList<>(t.getItems());
+            sortedItems.sort((a, b) -> Double.compare(twu.get(b.getItemId()), twu.get(a.getItemId())));
+            sortedTransactions.add(sortedItems);
+        }
+    }
+
+    @Benchmark
+    public UPTree addTransactions() {
+        UPTree tree = new UPTree();
+        for (List<Item> sortedItems : sortedTransactions) {
+            tree.addTransaction(sortedItems);
+        }
+        return tree;
+    }
+}
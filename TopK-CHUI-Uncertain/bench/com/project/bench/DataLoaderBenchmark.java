@@ -0,0 +1,27 @@
+package com.project.bench;
+
+import com.project.manager.DataLoader;
+import com.project.model.Dataset;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing cost of DataLoader.load (file is in the OS page cache after warmup).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class DataLoaderBenchmark {
+
+    @Param({"data/foodmart.txt"})
+    public String dataPath;
+
+    @Benchmark
+    public Dataset load() {
+        return DataLoader.load(dataPath);
+    }
+}
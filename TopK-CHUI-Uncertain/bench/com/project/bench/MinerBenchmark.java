@@ -0,0 +1,43 @@
+package com.project.bench;
+
+import com.project.algorithms.AlgorithmFactory;
+import com.project.algorithms.base.Stats;
+import com.project.manager.DataLoader;
+import com.project.model.Dataset;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end benchmark of runAlgorithm for every miner across K values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class MinerBenchmark {
+
+    @Param({"data/foodmart.txt"})
+    public String dataPath;
+
+    @Param({"U-TKU", "U-TKO", "U-EFIM"})
+    public String algorithm;
+
+    @Param({"10", "50", "100", "500"})
+    public int k;
+
+    private Dataset db;
+
+    @Setup(Level.Trial)
+    public void loadDataset() {
+        db = DataLoader.load(dataPath);
+    }
+
+    @Benchmark
+    public Stats runAlgorithm() {
+        // A fresh miner per invocation, exactly like MainTest
+        return AlgorithmFactory.create(algorithm).runAlgorithm(db, k);
+    }
+}
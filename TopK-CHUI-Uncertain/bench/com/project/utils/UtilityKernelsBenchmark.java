@@ -0,0 +1,53 @@
+package com.project.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scalar vs Vector API expected-utility kernels (UtilityKernels) over arrays of the
+ * sizes the miners reduce: a few rows up to the survivors of a long TID-list
+ * intersection. The vector case falls back to scalar when the CPU or JVM lacks it,
+ * which shows in isVectorized.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class UtilityKernelsBenchmark {
+
+    @Param({"16", "256", "4096", "65536"})
+    public int length;
+
+    @Param({"scalar", "vector"})
+    public String kernels;
+
+    private UtilityKernels impl;
+    private double[] utilities;
+    private double[] probabilities;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        impl = kernels.equals("vector") ? UtilityKernels.loadVectorized() : new UtilityKernels();
+        Random random = new Random(42);
+        utilities = new double[length];
+        probabilities = new double[length];
+        for (int i = 0; i < length; i++) {
+            utilities[i] = 1 + random.nextInt(500);
+            probabilities[i] = random.nextDouble();
+        }
+    }
+
+    @Benchmark
+    public double expectedUtility() {
+        return impl.dot(utilities, probabilities, length);
+    }
+
+    @Benchmark
+    public double expectedSupport() {
+        return impl.sum(probabilities, length);
+    }
+}
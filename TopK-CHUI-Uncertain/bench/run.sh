@@ -0,0 +1,30 @@
+#!/bin/sh
+# Builds and runs the JMH benchmarks. Run from TopK-CHUI-Uncertain/:
+#   sh bench/run.sh                      # all benchmarks
+#   sh bench/run.sh MinerBenchmark -p k=100
+# Extra arguments are passed to org.openjdk.jmh.Main.
+set -e
+
+JMH_VERSION=1.37
+MAVEN=https://repo1.maven.org/maven2
+LIB=lib
+OUT=bin-bench
+
+mkdir -p "$LIB"
+fetch() {
+    jar="$LIB/$(basename "$1")"
+    [ -f "$jar" ] || curl -fsSL -o "$jar" "$MAVEN/$1"
+}
+fetch org/openjdk/jmh/jmh-core/$JMH_VERSION/jmh-core-$JMH_VERSION.jar
+fetch org/openjdk/jmh/jmh-generator-annprocess/$JMH_VERSION/jmh-generator-annprocess-$JMH_VERSION.jar
+fetch net/sf/jopt-simple/jopt-simple/5.0.4/jopt-simple-5.0.4.jar
+fetch org/apache/commons/commons-math3/3.6.1/commons-math3-3.6.1.jar
+
+CP="$LIB/jmh-core-$JMH_VERSION.jar:$LIB/jmh-generator-annprocess-$JMH_VERSION.jar:$LIB/jopt-simple-5.0.4.jar:$LIB/commons-math3-3.6.1.jar"
+
+rm -rf "$OUT"
+# The JMH annotation processor generates the harness classes and META-INF/BenchmarkList;
+# vector/ holds the Vector API kernels (incubator module)
+javac --add-modules jdk.incubator.vector -cp "$CP" -processorpath "$CP" -d "$OUT" $(find src vector bench -name '*.java')
+
+java -cp "$OUT:$CP" org.openjdk.jmh.Main "$@"
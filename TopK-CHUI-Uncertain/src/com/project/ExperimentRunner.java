@@ -0,0 +1,229 @@
+package com.project;
+
+import com.project.algorithms.AlgorithmFactory;
+import com.project.algorithms.base.MiningAlgorithm;
+import com.project.algorithms.base.Stats;
+import com.project.manager.DataLoader;
+import com.project.manager.ExperimentCell;
+import com.project.manager.SummaryWriter;
+import com.project.model.Dataset;
+import com.project.utils.UtilityKernels;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Experiment harness that runs every dataset x K x algorithm cell in a fresh forked JVM,
+ * so JIT state, heap growth and leftover threads cannot leak between measurements.
+ * Each fork runs warmup iterations, then N measured repetitions; the coordinator
+ * reports median / p90 / stddev and flags cells whose result disagrees with the
+ * other algorithms on the same dataset and K.
+ *
+ * Usage: java -cp bin com.project.ExperimentRunner datasets=data/foodmart.txt k=10,50 warmup=2 reps=5
+ */
+public class ExperimentRunner {
+
+    private static final String WORKER_FLAG = "--worker";
+    private static final String SAMPLE_PREFIX = "SAMPLE ";
+    private static final String STATUS_PREFIX = "STATUS ";
+
+    /** Relative tolerance when comparing thresholds across algorithms */
+    private static final double AGREEMENT_TOLERANCE = 1e-6;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals(WORKER_FLAG)) {
+            runWorker(args);
+            return;
+        }
+
+        Map<String, String> options = new HashMap<>();
+        options.put("datasets", "data/foodmart.txt");
+        options.put("k", "10,50,100,500");
+        options.put("algorithms", String.join(",", AlgorithmFactory.NAMES));
+        options.put("warmup", "2");
+        options.put("reps", "5");
+        options.put("timeout", "300"); // seconds per measured run
+        options.put("xmx", "4g");
+        options.put("out", "output/experiments_summary");
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            if (kv.length == 2) {
+                options.put(kv[0], kv[1]);
+            } else {
+                System.err.println("Ignoring argument (expected key=value): " + arg);
+            }
+        }
+
+        int warmup = Integer.parseInt(options.get("warmup"));
+        int reps = Integer.parseInt(options.get("reps"));
+        long timeoutSeconds = Long.parseLong(options.get("timeout"));
+
+        List<ExperimentCell> cells = new ArrayList<>();
+        for (String dataset : options.get("datasets").split(",")) {
+            if (!new File(dataset).exists()) {
+                System.err.println("File not found: " + dataset);
+                continue;
+            }
+            for (String kStr : options.get("k").split(",")) {
+                int k = Integer.parseInt(kStr.trim());
+                for (String algorithm : options.get("algorithms").split(",")) {
+                    System.out.printf("%s K=%d %-8s ... ", new File(dataset).getName(), k, algorithm);
+                    ExperimentCell cell = runForked(dataset, algorithm.trim(), k, warmup, reps,
+                                                    timeoutSeconds, options.get("xmx"));
+                    System.out.printf(Locale.ROOT, "%s median %.1fms p90 %.1fms sd %.1fms | mem %.2fMB | MinUtil: %.5f%n",
+                        cell.getStatus(), cell.getRuntimeMedian(), cell.getRuntimeP90(), cell.getRuntimeStdDev(),
+                        cell.getMemoryMedian(), cell.getMinUtilThreshold());
+                    cells.add(cell);
+                }
+            }
+        }
+
+        flagDisagreements(cells);
+        SummaryWriter.writeCsv(options.get("out") + ".csv", cells);
+        SummaryWriter.writeJson(options.get("out") + ".json", cells);
+        System.out.println("Summary written to " + options.get("out") + ".{csv,json}");
+    }
+
+    /**
+     * Launches one cell in a child JVM with the same classpath and collects its samples.
+     */
+    private static ExperimentCell runForked(String dataset, String algorithm, int k, int warmup, int reps,
+                                            long timeoutSeconds, String xmx) throws IOException, InterruptedException {
+        ExperimentCell cell = new ExperimentCell(new File(dataset).getName(), algorithm, k);
+
+        String javaBin = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        List<String> command = new ArrayList<>();
+        command.add(javaBin);
+        command.add("-Xms" + xmx);
+        command.add("-Xmx" + xmx);
+        if (UtilityKernels.INSTANCE.isVectorized()) {
+            // Measure the cells with the same kernels as the parent
+            command.add("--add-modules");
+            command.add("jdk.incubator.vector");
+            command.add("-Dtopk.vector=true");
+        }
+        if (Boolean.getBoolean("topk.offheap")) {
+            command.add("-Dtopk.offheap=true");
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(ExperimentRunner.class.getName());
+        command.add(WORKER_FLAG);
+        command.add(dataset);
+        command.add(algorithm);
+        command.add(String.valueOf(k));
+        command.add(String.valueOf(warmup));
+        command.add(String.valueOf(reps));
+        command.add(String.valueOf(timeoutSeconds));
+
+        Process process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(SAMPLE_PREFIX)) {
+                    String[] p = line.substring(SAMPLE_PREFIX.length()).split(" ");
+                    cell.addSample(Double.parseDouble(p[0]), Double.parseDouble(p[1]),
+                                   Integer.parseInt(p[2]), Double.parseDouble(p[3]));
+                } else if (line.startsWith(STATUS_PREFIX)) {
+                    cell.setStatus(ExperimentCell.Status.valueOf(line.substring(STATUS_PREFIX.length()).trim()));
+                }
+            }
+        }
+
+        // The worker enforces its own time limit; this only catches a hung fork
+        long budget = (timeoutSeconds + 30) * (warmup + reps);
+        if (!process.waitFor(budget, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            cell.setStatus(ExperimentCell.Status.TIMEOUT);
+        } else if (process.exitValue() != 0 && cell.getStatus() == ExperimentCell.Status.OK) {
+            cell.setStatus(ExperimentCell.Status.ERROR);
+        }
+        return cell;
+    }
+
+    /**
+     * Child JVM entry point: --worker dataset algorithm k warmup reps timeoutSeconds
+     */
+    private static void runWorker(String[] args) {
+        String dataset = args[1];
+        String algorithm = args[2];
+        int k = Integer.parseInt(args[3]);
+        int warmup = Integer.parseInt(args[4]);
+        int reps = Integer.parseInt(args[5]);
+        long timeoutSeconds = Long.parseLong(args[6]);
+
+        Dataset db = DataLoader.load(dataset);
+        try {
+            for (int i = 0; i < warmup + reps; i++) {
+                MiningAlgorithm algo = AlgorithmFactory.create(algorithm);
+                algo.setTimeLimit(timeoutSeconds * 1000);
+                Stats stats = algo.runAlgorithm(db, k);
+
+                if (!stats.isCompleted()) {
+                    System.out.println(STATUS_PREFIX + ExperimentCell.Status.TIMEOUT);
+                    return;
+                }
+                if (i >= warmup) {
+                    System.out.printf(Locale.ROOT, SAMPLE_PREFIX + "%d %.4f %d %.10f%n",
+                        stats.getRuntime(), stats.getMemory(), stats.getPatternCount(), stats.getMinUtilThreshold());
+                }
+            }
+            System.out.println(STATUS_PREFIX + ExperimentCell.Status.OK);
+        } catch (OutOfMemoryError e) {
+            System.out.println(STATUS_PREFIX + ExperimentCell.Status.OOM);
+        }
+    }
+
+    /**
+     * Marks cells whose threshold or pattern count differs from the majority of the
+     * successful algorithms on the same dataset and K (all of them if there is no majority).
+     */
+    private static void flagDisagreements(List<ExperimentCell> cells) {
+        Map<String, List<ExperimentCell>> groups = new HashMap<>();
+        for (ExperimentCell cell : cells) {
+            if (cell.getStatus() == ExperimentCell.Status.OK && cell.getSampleCount() > 0) {
+                groups.computeIfAbsent(cell.getDataset() + "#" + cell.getK(), key -> new ArrayList<>()).add(cell);
+            }
+        }
+
+        for (List<ExperimentCell> group : groups.values()) {
+            if (group.size() < 2) continue;
+
+            // How many cells of the group (itself included) each cell agrees with
+            int[] agreeing = new int[group.size()];
+            int best = 0;
+            for (int i = 0; i < group.size(); i++) {
+                for (ExperimentCell other : group) {
+                    if (sameResult(group.get(i), other)) agreeing[i]++;
+                }
+                best = Math.max(best, agreeing[i]);
+            }
+
+            for (int i = 0; i < group.size(); i++) {
+                ExperimentCell cell = group.get(i);
+                if (agreeing[i] < best || best == 1) {
+                    cell.setAgreement(false);
+                    System.out.printf(Locale.ROOT, "WARNING: %s K=%d %s disagrees (MinUtil %.5f, Count %d)%n",
+                        cell.getDataset(), cell.getK(), cell.getAlgorithm(), cell.getMinUtilThreshold(), cell.getPatternCount());
+                }
+            }
+        }
+    }
+
+    private static boolean sameResult(ExperimentCell a, ExperimentCell b) {
+        double scale = Math.max(1.0, Math.abs(b.getMinUtilThreshold()));
+        return a.getPatternCount() == b.getPatternCount()
+            && Math.abs(a.getMinUtilThreshold() - b.getMinUtilThreshold()) <= AGREEMENT_TOLERANCE * scale;
+    }
+}
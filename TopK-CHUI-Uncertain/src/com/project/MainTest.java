@@ -1,6 +1,7 @@
 package com.project;
 
 import com.project.algorithms.base.MiningAlgorithm;
+import com.project.algorithms.base.SearchCounters;
 import com.project.algorithms.base.Stats;
 import com.project.algorithms.uefim.UEFIM_Miner;
 import com.project.algorithms.utko.UTKO_Miner;
@@ -8,6 +9,7 @@ import com.project.algorithms.utku.UTKU_Miner;
 import com.project.manager.DataLoader;
 import com.project.manager.ResultWriter;
 import com.project.model.Dataset;
+import com.project.utils.MemoryBudget;
 
 import java.io.File;
 import java.util.concurrent.*;
@@ -21,6 +23,12 @@ public class MainTest {
     /** Maximum time allowed for a single algorithm run (5 minutes) */
     private static final long TIME_LIMIT_SECONDS = 300; 
 
+    /** Extra time granted to a miner to unwind after its own time limit fires */
+    private static final long STOP_GRACE_SECONDS = 5;
+
+    /** Share of -Xmx a run may fill with live data before it spills pending branches to disk */
+    private static final double MEMORY_BUDGET_FRACTION = 0.8;
+
     public static void main(String[] args) {
         String[] datasets = {"data/liquor.txt"};
         int[] kList = {10, 50, 100 , 500};
@@ -48,9 +56,11 @@ public class MainTest {
                 db.getMaxItemId()
             );
 
+            // One run per K: runtime and memory are measured for each K, and U-TKU's
+            // heuristic result depends on K (runAlgorithm(db, int[]) would derive them instead)
             for (int k : kList) {
                 System.out.println("\n--- Experiment: K = " + k + " ---");
-                
+
                 // Run algorithms in order of expected performance
                 runWithTimeout(new UTKU_Miner(), db, k, "U-TKU", path, true);
                 runWithTimeout(new UTKO_Miner(), db, k, "U-TKO", path, true);
@@ -81,13 +91,25 @@ public class MainTest {
 
             System.out.printf("  %-8s ... ", algoName);
 
+            // The miner stops itself at the limit; the future timeout is only a safety net
+            algo.setTimeLimit(TIME_LIMIT_SECONDS * 1000);
+            algo.setMemoryBudget(MemoryBudget.ofMaxHeap(MEMORY_BUDGET_FRACTION));
             future = executor.submit(() -> algo.runAlgorithm(db, k));
 
             // Wait for completion or timeout
-            Stats stats = future.get(TIME_LIMIT_SECONDS, TimeUnit.SECONDS);
+            Stats stats = future.get(TIME_LIMIT_SECONDS + STOP_GRACE_SECONDS, TimeUnit.SECONDS);
+
+            if (!stats.isCompleted()) {
+                System.out.println("TIME OUT! (> " + TIME_LIMIT_SECONDS + "s) Partial: " + stats.toString());
+                writeError(algoName, dataName, k, -1, recordResult);
+                return;
+            }
 
             System.out.println("Done. " + stats.toString());
-            
+            if (SearchCounters.ENABLED) {
+                System.out.println("           " + stats.getCounters());
+            }
+
             if (recordResult) {
                 ResultWriter.write(algoName, dataName, k, stats);
             }
@@ -97,20 +119,12 @@ public class MainTest {
             
             if (future != null) future.cancel(true);
             
-            if (recordResult) {
-                Stats errorStats = new Stats(algoName);
-                errorStats.setRuntime(-1); // -1 indicates Timeout
-                ResultWriter.write(algoName, dataName, k, errorStats);
-            }
+            writeError(algoName, dataName, k, -1, recordResult);
 
         } catch (OutOfMemoryError | ExecutionException e) {
             if (e instanceof OutOfMemoryError || (e.getCause() != null && e.getCause() instanceof OutOfMemoryError)) {
                 System.out.println("OOM ERROR! (Out of Memory)");
-                if (recordResult) {
-                    Stats errorStats = new Stats(algoName);
-                    errorStats.setRuntime(-2); // -2 indicates OOM
-                    ResultWriter.write(algoName, dataName, k, errorStats);
-                }
+                writeError(algoName, dataName, k, -2, recordResult);
             } else {
                 System.out.println("EXECUTION ERROR: " + e.getMessage());
                 e.printStackTrace();
@@ -121,4 +135,16 @@ public class MainTest {
             executor.shutdownNow();
         }
     }
+
+    /**
+     * Records a failed run (-1 indicates Timeout, -2 indicates OOM).
+     */
+    private static void writeError(String algoName, String dataName, int k, long code, boolean recordResult) {
+        if (!recordResult) {
+            return;
+        }
+        Stats errorStats = new Stats(algoName);
+        errorStats.setRuntime(code);
+        ResultWriter.write(algoName, dataName, k, errorStats);
+    }
 }
@@ -0,0 +1,75 @@
+package com.project;
+
+import com.project.algorithms.base.Stats;
+import com.project.algorithms.utko.SlidingWindowUTKO_Miner;
+import com.project.manager.TransactionBatchReader;
+import com.project.model.Transaction;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Replays a dataset file as a stream of batches through the sliding-window miner
+ * and reports per-batch latency (offline benchmark of the stream mode).
+ *
+ * Usage: java -cp bin com.project.StreamRunner file=data/foodmart.txt batch=500 window=4 k=100
+ */
+public class StreamRunner {
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        options.put("file", "data/foodmart.txt");
+        options.put("batch", "500");
+        options.put("window", "4");
+        options.put("k", "100");
+        options.put("verbose", "true");
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            if (kv.length == 2) {
+                options.put(kv[0], kv[1]);
+            } else {
+                System.err.println("Ignoring argument (expected key=value): " + arg);
+            }
+        }
+
+        String file = options.get("file");
+        if (!new File(file).exists()) {
+            System.err.println("File not found: " + file);
+            return;
+        }
+        int batchSize = Integer.parseInt(options.get("batch"));
+        int windowBatches = Integer.parseInt(options.get("window"));
+        int k = Integer.parseInt(options.get("k"));
+        boolean verbose = Boolean.parseBoolean(options.get("verbose"));
+
+        SlidingWindowUTKO_Miner miner = new SlidingWindowUTKO_Miner(windowBatches, k);
+        int batches = 0;
+        long transactions = 0;
+        long totalMillis = 0;
+        long maxMillis = 0;
+
+        try (TransactionBatchReader source = new TransactionBatchReader(file, batchSize)) {
+            while (source.hasNext()) {
+                List<Transaction> batch = source.next();
+                Stats stats = miner.addBatch(batch);
+
+                batches++;
+                transactions += batch.size();
+                totalMillis += stats.getRuntime();
+                maxMillis = Math.max(maxMillis, stats.getRuntime());
+                if (verbose) {
+                    System.out.printf("Batch %4d | Window: %d trans | %s%n",
+                        batches, miner.getWindowTransactionCount(), stats);
+                }
+            }
+        }
+
+        System.out.printf(Locale.ROOT, "%d batches, %d transactions | per batch avg %.1fms max %dms | %.0f trans/s%n",
+            batches, transactions, batches == 0 ? 0.0 : (double) totalMillis / batches, maxMillis,
+            totalMillis == 0 ? 0.0 : transactions * 1000.0 / totalMillis);
+    }
+}
@@ -0,0 +1,31 @@
+package com.project.algorithms;
+
+import com.project.algorithms.auto.AutoMiner;
+import com.project.algorithms.base.MiningAlgorithm;
+import com.project.algorithms.uefim.UEFIM_Miner;
+import com.project.algorithms.utko.UTKO_Miner;
+import com.project.algorithms.utku.UTKU_Miner;
+
+/**
+ * Creates miners from their display names (as used in the result CSVs).
+ */
+public class AlgorithmFactory {
+    public static final String[] NAMES = {"U-TKU", "U-TKO", "U-EFIM"};
+
+    /** Picks one of NAMES per dataset and K (see AutoMiner) */
+    public static final String AUTO = "auto";
+
+    private AlgorithmFactory() {
+        // Prevent instantiation
+    }
+
+    public static MiningAlgorithm create(String name) {
+        switch (name) {
+            case "U-TKU": return new UTKU_Miner();
+            case "U-TKO": return new UTKO_Miner();
+            case "U-EFIM": return new UEFIM_Miner();
+            case AUTO: return new AutoMiner();
+            default: throw new IllegalArgumentException("Unknown algorithm: " + name);
+        }
+    }
+}
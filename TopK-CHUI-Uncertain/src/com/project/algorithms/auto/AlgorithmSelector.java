@@ -0,0 +1,243 @@
+package com.project.algorithms.auto;
+
+import com.project.algorithms.base.SearchStrategy;
+import com.project.manager.DataLoader;
+import com.project.model.DatasetProfile;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Chooses a miner from a dataset profile and K, calibrated from benchmark results
+ * (the CSVs written by ResultWriter or ExperimentRunner, columns found by header name).
+ *
+ * Each (dataset, K) cell of the results becomes an observation whose winner is the fastest
+ * completed algorithm that reached the best threshold of the cell: U-TKU is heuristic, so
+ * it only wins where it was exact. A query takes the winner of the nearest observation
+ * (counts compared on a log scale, K included). Without an observation close enough,
+ * U-EFIM (exact, fastest on most benchmarks) is chosen.
+ */
+public class AlgorithmSelector {
+    private static final String DEFAULT_RESULTS = "output/experiments_result.csv";
+    private static final String DEFAULT_DATA_DIR = "data";
+    private static final String FALLBACK = "U-EFIM";
+
+    /** Relative tolerance when comparing thresholds within a cell */
+    private static final double EXACT_TOLERANCE = 1e-6;
+
+    /** Beyond this distance a benchmark says little about the dataset (about two factors of e) */
+    private static final double MAX_DISTANCE = 4.0;
+
+    /** Weight of fractions (density, probabilities, skew): a 0.25 difference counts like a factor e in a count */
+    private static final double FRACTION_WEIGHT = 4.0;
+
+    /** Rough heap cost of one item occurrence (dataset objects plus mining structures) */
+    private static final long BYTES_PER_OCCURRENCE = 100;
+
+    /** A budget is worth setting when the estimate exceeds this share of -Xmx */
+    private static final double HEAP_SHARE_FOR_BUDGET = 0.5;
+
+    /** One benchmarked (dataset, K) cell */
+    private static class Observation {
+        final String dataset;
+        final DatasetProfile profile;
+        final int k;
+        final String winner;
+        final Map<String, Double> runtimes;
+
+        Observation(String dataset, DatasetProfile profile, int k, String winner, Map<String, Double> runtimes) {
+            this.dataset = dataset;
+            this.profile = profile;
+            this.k = k;
+            this.winner = winner;
+            this.runtimes = runtimes;
+        }
+    }
+
+    /** One result row: runtime < 0 when the run did not complete */
+    private static class Result {
+        final double runtime;
+        final double threshold;
+
+        Result(double runtime, double threshold) {
+            this.runtime = runtime;
+            this.threshold = threshold;
+        }
+    }
+
+    private final List<Observation> observations;
+
+    private AlgorithmSelector(List<Observation> observations) {
+        this.observations = observations;
+    }
+
+    private static class DefaultHolder {
+        static final AlgorithmSelector INSTANCE = new File(DEFAULT_RESULTS).exists()
+                ? calibrate(DEFAULT_RESULTS, DEFAULT_DATA_DIR) : uncalibrated();
+    }
+
+    /**
+     * The selector calibrated from output/experiments_result.csv and the datasets in data/
+     * (built once per JVM; uncalibrated if the results file is missing).
+     */
+    public static AlgorithmSelector getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    public static AlgorithmSelector uncalibrated() {
+        return new AlgorithmSelector(new ArrayList<>());
+    }
+
+    /**
+     * Builds the model from a results CSV. The datasets it names are loaded from dataDir
+     * once to measure their profiles; cells of missing datasets are skipped.
+     */
+    public static AlgorithmSelector calibrate(String resultsPath, String dataDir) {
+        // dataset -> K -> algorithm -> latest result
+        Map<String, Map<Integer, Map<String, Result>>> cells = new LinkedHashMap<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(resultsPath))) {
+            String line = br.readLine();
+            if (line == null) {
+                return uncalibrated();
+            }
+            List<String> header = Arrays.asList(line.split(","));
+            int algorithmCol = header.indexOf("Algorithm");
+            int datasetCol = header.indexOf("Dataset");
+            int kCol = header.indexOf("K");
+            int runtimeCol = header.contains("Runtime(ms)") ? header.indexOf("Runtime(ms)") : header.indexOf("RuntimeMedian(ms)");
+            int thresholdCol = header.indexOf("MinUtilThreshold");
+            int statusCol = header.indexOf("Status");
+            if (algorithmCol < 0 || datasetCol < 0 || kCol < 0 || runtimeCol < 0 || thresholdCol < 0) {
+                throw new IllegalArgumentException("Not a results CSV (missing columns): " + resultsPath);
+            }
+            int lastNeeded = Math.max(Math.max(algorithmCol, datasetCol), Math.max(kCol, Math.max(runtimeCol, thresholdCol)));
+
+            while ((line = br.readLine()) != null) {
+                String[] row = line.split(",");
+                // Rows may be shorter than the header (older files without the counter columns)
+                if (row.length <= lastNeeded) {
+                    continue;
+                }
+                try {
+                    double runtime = Double.parseDouble(row[runtimeCol]);
+                    if (statusCol >= 0 && statusCol < row.length && !row[statusCol].equals("OK")) {
+                        runtime = -1;
+                    }
+                    cells.computeIfAbsent(row[datasetCol], d -> new HashMap<>())
+                         .computeIfAbsent(Integer.parseInt(row[kCol]), k -> new HashMap<>())
+                         .put(row[algorithmCol], new Result(runtime, Double.parseDouble(row[thresholdCol])));
+                } catch (NumberFormatException e) {
+                    // Skip malformed rows
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Cannot read calibration results: " + e.getMessage());
+            return uncalibrated();
+        }
+
+        List<Observation> observations = new ArrayList<>();
+        for (Map.Entry<String, Map<Integer, Map<String, Result>>> dataset : cells.entrySet()) {
+            File file = new File(dataDir, dataset.getKey());
+            if (!file.exists()) {
+                System.err.println("Calibration: skipping " + dataset.getKey() + " (not found in " + dataDir + ")");
+                continue;
+            }
+            DatasetProfile profile = DatasetProfile.of(DataLoader.load(file.getPath()));
+            for (Map.Entry<Integer, Map<String, Result>> cell : dataset.getValue().entrySet()) {
+                Observation observation = observe(dataset.getKey(), profile, cell.getKey(), cell.getValue());
+                if (observation != null) {
+                    observations.add(observation);
+                }
+            }
+        }
+        return new AlgorithmSelector(observations);
+    }
+
+    // Winner of a cell: fastest completed algorithm whose threshold is the cell's best
+    private static Observation observe(String dataset, DatasetProfile profile, int k, Map<String, Result> results) {
+        double best = Double.NEGATIVE_INFINITY;
+        for (Result result : results.values()) {
+            if (result.runtime >= 0) {
+                best = Math.max(best, result.threshold);
+            }
+        }
+        String winner = null;
+        Map<String, Double> runtimes = new HashMap<>();
+        for (Map.Entry<String, Result> entry : results.entrySet()) {
+            Result result = entry.getValue();
+            boolean exact = result.runtime >= 0 && result.threshold >= best - Math.abs(best) * EXACT_TOLERANCE;
+            if (exact) {
+                runtimes.put(entry.getKey(), result.runtime);
+                if (winner == null || result.runtime < runtimes.get(winner)) {
+                    winner = entry.getKey();
+                }
+            }
+        }
+        return winner == null ? null : new Observation(dataset, profile, k, winner, runtimes);
+    }
+
+    public int getObservationCount() {
+        return observations.size();
+    }
+
+    /**
+     * Chooses the miner and its options for a dataset and K.
+     */
+    public Selection select(DatasetProfile profile, int k) {
+        String algorithm = FALLBACK;
+        String reason = "uncalibrated default";
+        Observation nearest = null;
+        double nearestDistance = Double.POSITIVE_INFINITY;
+        for (Observation observation : observations) {
+            double distance = distance(profile, k, observation);
+            if (distance < nearestDistance) {
+                nearest = observation;
+                nearestDistance = distance;
+            }
+        }
+        if (nearest != null && nearestDistance <= MAX_DISTANCE) {
+            algorithm = nearest.winner;
+            reason = String.format(Locale.ROOT, "nearest benchmark %s K=%d %s (distance %.2f)",
+                    nearest.dataset, nearest.k, nearest.runtimes, nearestDistance);
+        } else if (nearest != null) {
+            reason = String.format(Locale.ROOT, "default, nearest benchmark %s K=%d too far (distance %.2f)",
+                    nearest.dataset, nearest.k, nearestDistance);
+        }
+
+        // Both orders return the same result for the exact miners and best-first visits fewer nodes;
+        // U-TKU is heuristic, so it keeps the order it was benchmarked with
+        SearchStrategy strategy = algorithm.equals("U-TKU") ? SearchStrategy.DEPTH_FIRST : SearchStrategy.BEST_FIRST;
+        boolean budget = profile.getOccurrences() * BYTES_PER_OCCURRENCE
+                > Runtime.getRuntime().maxMemory() * HEAP_SHARE_FOR_BUDGET;
+        return new Selection(algorithm, strategy, budget, reason);
+    }
+
+    private static double distance(DatasetProfile a, int k, Observation observation) {
+        DatasetProfile b = observation.profile;
+        return square(log(a.getTransactionCount()) - log(b.getTransactionCount()))
+                + square(log(a.getItemCount()) - log(b.getItemCount()))
+                + square(log(a.getAverageLength()) - log(b.getAverageLength()))
+                + square(log(k) - log(observation.k))
+                + square(FRACTION_WEIGHT * (a.getDensity() - b.getDensity()))
+                + square(FRACTION_WEIGHT * (a.getMeanProbability() - b.getMeanProbability()))
+                + square(FRACTION_WEIGHT * (a.getCertainShare() - b.getCertainShare()))
+                + square(FRACTION_WEIGHT * (a.getTwuSkew() - b.getTwuSkew()));
+    }
+
+    private static double log(double value) {
+        return Math.log(Math.max(value, 1));
+    }
+
+    private static double square(double value) {
+        return value * value;
+    }
+}
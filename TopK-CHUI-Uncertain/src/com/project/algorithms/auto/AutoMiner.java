@@ -0,0 +1,74 @@
+package com.project.algorithms.auto;
+
+import com.project.algorithms.AlgorithmFactory;
+import com.project.algorithms.base.MiningAlgorithm;
+import com.project.algorithms.base.SearchStrategy;
+import com.project.algorithms.base.Stats;
+import com.project.model.Dataset;
+import com.project.model.DatasetProfile;
+import com.project.utils.MemoryBudget;
+
+/**
+ * The "auto" algorithm: profiles the dataset (cached on it), lets an AlgorithmSelector
+ * choose U-TKU, U-TKO or U-EFIM and its options, and runs that miner with the settings
+ * of this one. A search strategy or memory budget set explicitly is kept.
+ */
+public class AutoMiner extends MiningAlgorithm {
+    /** Budget used when the selection asks for one and none was set */
+    private static final double MEMORY_BUDGET_FRACTION = 0.8;
+
+    private AlgorithmSelector selector = AlgorithmSelector.getDefault();
+    private boolean strategySet;
+    private boolean budgetSet;
+
+    private volatile MiningAlgorithm delegate;
+    private Selection lastSelection;
+
+    public void setSelector(AlgorithmSelector selector) {
+        this.selector = selector;
+    }
+
+    @Override
+    public void setSearchStrategy(SearchStrategy searchStrategy) {
+        super.setSearchStrategy(searchStrategy);
+        strategySet = searchStrategy != null;
+    }
+
+    @Override
+    public void setMemoryBudget(MemoryBudget memoryBudget) {
+        super.setMemoryBudget(memoryBudget);
+        budgetSet = memoryBudget != null;
+    }
+
+    @Override
+    public Stats runAlgorithm(Dataset db, int k) {
+        DatasetProfile profile = db.getDerived(DatasetProfile.KEY, DatasetProfile::of);
+        Selection selection = selector.select(profile, k);
+
+        MiningAlgorithm miner = AlgorithmFactory.create(selection.getAlgorithm());
+        copySettingsTo(miner);
+        if (!strategySet) {
+            miner.setSearchStrategy(selection.getSearchStrategy());
+        }
+        if (!budgetSet && selection.usesMemoryBudget()) {
+            miner.setMemoryBudget(MemoryBudget.ofMaxHeap(MEMORY_BUDGET_FRACTION));
+        }
+        this.lastSelection = selection;
+        this.delegate = miner;
+        return miner.runAlgorithm(db, k);
+    }
+
+    @Override
+    public void raiseThreshold(double threshold) {
+        super.raiseThreshold(threshold);
+        MiningAlgorithm running = delegate;
+        if (running != null) {
+            running.raiseThreshold(threshold);
+        }
+    }
+
+    /** The choice made by the last run (null before the first run) */
+    public Selection getLastSelection() {
+        return lastSelection;
+    }
+}
@@ -0,0 +1,35 @@
+package com.project.algorithms.auto;
+
+import com.project.algorithms.base.SearchStrategy;
+
+/**
+ * A miner chosen for a dataset and K, with the options to run it with.
+ */
+public class Selection {
+    private final String algorithm;
+    private final SearchStrategy searchStrategy;
+    private final boolean memoryBudget;
+    private final String reason;
+
+    public Selection(String algorithm, SearchStrategy searchStrategy, boolean memoryBudget, String reason) {
+        this.algorithm = algorithm;
+        this.searchStrategy = searchStrategy;
+        this.memoryBudget = memoryBudget;
+        this.reason = reason;
+    }
+
+    /** Display name, as accepted by AlgorithmFactory */
+    public String getAlgorithm() { return algorithm; }
+    public SearchStrategy getSearchStrategy() { return searchStrategy; }
+
+    /** Whether the dataset is large for the heap, so the run should spill under a memory budget */
+    public boolean usesMemoryBudget() { return memoryBudget; }
+
+    /** What the choice was based on (for logs) */
+    public String getReason() { return reason; }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%s%s) - %s", algorithm, searchStrategy, memoryBudget ? ", memory budget" : "", reason);
+    }
+}
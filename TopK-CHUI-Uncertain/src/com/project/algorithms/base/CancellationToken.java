@@ -0,0 +1,17 @@
+package com.project.algorithms.base;
+
+/**
+ * Cooperative cancellation flag shared between a caller and a running miner.
+ * The miner polls it from its search recursion and stops with partial results.
+ */
+public class CancellationToken {
+    private volatile boolean cancelled = false;
+
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,12 @@
+package com.project.algorithms.base;
+
+import com.project.model.Itemset;
+
+/**
+ * Receives every itemset reaching minUtility when a miner runs in threshold mode
+ * (see {@link MiningAlgorithm#setCandidateSink}). Called on the mining thread.
+ */
+@FunctionalInterface
+public interface CandidateSink {
+    void accept(Itemset candidate);
+}
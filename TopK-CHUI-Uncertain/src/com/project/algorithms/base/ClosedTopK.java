@@ -0,0 +1,196 @@
+package com.project.algorithms.base;
+
+import com.project.algorithms.base.jfr.TopKChangeEvent;
+import com.project.model.Itemset;
+import com.project.utils.MathUtils;
+
+import java.util.*;
+
+/**
+ * The Top-K closed itemsets found so far: a TopKQueue plus an index of the held patterns
+ * by expected support for the closed checks.
+ * Used by the miners through savePattern, and directly to merge itemsets that were
+ * already evaluated elsewhere (PartitionedMiner).
+ */
+public class ClosedTopK {
+
+    /** Notified of every change, with a TopKChangeEvent action */
+    public interface ChangeListener {
+        void onChange(String action, Itemset pattern);
+    }
+
+    private final TopKQueue queue;
+    private final SearchCounters counters;
+    private final ChangeListener listener;
+
+    /**
+     * Index patterns by expected support to optimize Closed Constraint checking.
+     * Key: Expected Support -> Value: List of Itemsets with that support
+     */
+    private final Map<Double, List<Itemset>> closedIndex = new HashMap<>();
+
+    public ClosedTopK(int k) {
+        this(k, new SearchCounters(), null);
+    }
+
+    /**
+     * @param counters Receives the closed-check comparisons and rejections.
+     * @param listener Change listener, or null.
+     */
+    public ClosedTopK(int k, SearchCounters counters, ChangeListener listener) {
+        this.queue = new TopKQueue(k);
+        this.counters = counters;
+        this.listener = listener;
+    }
+
+    /**
+     * Offers a candidate. It is rejected when it cannot beat the K-th pattern or when a held
+     * superset has the same support; held subsets with the same support are removed.
+     * Fed in descending utility order, a superset with the same support (whose utility is
+     * never lower) is always seen before its subsets.
+     * @param closed The caller proved the candidate closed: the support-group checks are
+     *               skipped, only a copy of it already held is looked for.
+     * @return Whether the candidate is now held.
+     */
+    public boolean add(Itemset candidate, boolean closed) {
+        // Early exit if the candidate cannot enter the Top-K queue
+        if (queue.isFull() && !MathUtils.greaterThan(candidate.getUtility(), getThreshold())) {
+             counters.savePatternRejected();
+             return false;
+        }
+
+        // Closed Constraint Check: A pattern X is closed if no superset Y exists with the same support.
+        List<Itemset> sameSupportGroup = closed ? null : findGroup(candidate.getExpectedSupport());
+
+        // A proven-closed candidate can only collide with itemsets added without the proof,
+        // e.g. the previous Top-K seeded by the sliding-window miner and found again
+        if (closed && !closedIndex.isEmpty()) {
+            List<Itemset> group = findGroup(candidate.getExpectedSupport());
+            if (group != null) {
+                for (Itemset existing : group) {
+                    counters.closedCheckComparison();
+                    if (Arrays.equals(existing.getItems(), candidate.getItems())) {
+                        counters.savePatternRejected();
+                        return false;
+                    }
+                }
+            }
+        }
+
+        if (sameSupportGroup != null) {
+            Iterator<Itemset> it = sameSupportGroup.iterator();
+            while (it.hasNext()) {
+                Itemset existing = it.next();
+                counters.closedCheckComparison();
+
+                // Forward Check: Is candidate a subset of an existing closed pattern?
+                if (MathUtils.isSubsetSorted(candidate.getItems(), existing.getItems())) {
+                    counters.savePatternRejected();
+                    return false;
+                }
+
+                // Backward Check: Is candidate a superset of an existing pattern?
+                if (MathUtils.isSubsetSorted(existing.getItems(), candidate.getItems())) {
+                    queue.remove(existing);
+                    it.remove();
+                    notify(TopKChangeEvent.NOT_CLOSED, existing);
+                }
+            }
+            // Cleanup if group became empty after backward checks
+            if (sameSupportGroup.isEmpty()) {
+                removeGroup(candidate.getExpectedSupport());
+            }
+        }
+
+        // Add to queue and handle eviction if necessary
+        Itemset evicted = queue.add(candidate);
+
+        if (!queue.getQueue().contains(candidate)) {
+            counters.savePatternRejected();
+            return false;
+        }
+        if (!closed) {
+            addToIndex(candidate);
+        }
+        notify(TopKChangeEvent.ACCEPTED, candidate);
+        if (evicted != null) {
+            if (!closedIndex.isEmpty()) {
+                removeFromIndex(evicted);
+            }
+            notify(TopKChangeEvent.EVICTED, evicted);
+        }
+        return true;
+    }
+
+    public boolean isFull() {
+        return queue.isFull();
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    /** Utility of the K-th pattern (0 until K patterns are held) */
+    public double getThreshold() {
+        return queue.isFull() ? queue.peek().getUtility() : 0;
+    }
+
+    /** The held patterns, highest utility first */
+    public List<Itemset> getPatterns() {
+        List<Itemset> patterns = new ArrayList<>(queue.getQueue());
+        patterns.sort(Collections.reverseOrder());
+        return patterns;
+    }
+
+    private void notify(String action, Itemset pattern) {
+        if (listener != null) {
+            listener.onChange(action, pattern);
+        }
+    }
+
+    // Helper: Find group with epsilon-aware support check
+    private List<Itemset> findGroup(double support) {
+        for (Map.Entry<Double, List<Itemset>> entry : closedIndex.entrySet()) {
+            if (MathUtils.equals(entry.getKey(), support)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    // Helper: Remove group with epsilon-aware support check
+    private void removeGroup(double support) {
+        Double keyToRemove = null;
+        for (Double key : closedIndex.keySet()) {
+            if (MathUtils.equals(key, support)) {
+                keyToRemove = key;
+                break;
+            }
+        }
+        if (keyToRemove != null) {
+            closedIndex.remove(keyToRemove);
+        }
+    }
+
+    // Helper: Add to index
+    private void addToIndex(Itemset itemset) {
+        double support = itemset.getExpectedSupport();
+        List<Itemset> group = findGroup(support);
+        if (group == null) {
+            group = new ArrayList<>();
+            closedIndex.put(support, group);
+        }
+        group.add(itemset);
+    }
+
+    // Helper: Remove from index (Fix for Memory Leak)
+    private void removeFromIndex(Itemset itemset) {
+        List<Itemset> group = findGroup(itemset.getExpectedSupport());
+        if (group != null) {
+            group.remove(itemset);
+            if (group.isEmpty()) {
+                removeGroup(itemset.getExpectedSupport());
+            }
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package com.project.algorithms.base;
 
+import com.project.algorithms.base.jfr.ThresholdRaisedEvent;
+import com.project.algorithms.base.jfr.TopKChangeEvent;
 import com.project.model.Dataset;
+import com.project.model.Item;
 import com.project.model.Itemset;
+import com.project.model.Transaction;
 import com.project.utils.MathUtils;
-import com.project.utils.MemoryLogger;
+import com.project.utils.MemoryBudget;
+import com.project.utils.MemoryTracker;
 
 import java.util.*;
 
@@ -12,28 +17,475 @@ import java.util.*;
  * Provides common functionality for Top-K maintenance and Closed Itemset checking.
  */
 public abstract class MiningAlgorithm {
-    protected TopKQueue topKBuffer;
+    protected ClosedTopK topK;
     protected double minUtility = 0;
     
     /** Stores TWU values for sorting consistency across all miners */
     protected Map<Integer, Double> mapItemToTWU;
 
-    /** 
-     * Index patterns by expected support to optimize Closed Constraint checking.
-     * Key: Expected Support -> Value: List of Itemsets with that support
-     */
-    protected Map<Double, List<Itemset>> closedIndex = new HashMap<>(); 
+    /** Per-run search instrumentation (no-op unless -Dtopk.counters=true) */
+    protected SearchCounters counters = new SearchCounters();
+
+    /** Peak heap and allocation tracking for the current run */
+    private MemoryTracker memoryTracker;
+
+    /** Item and shape constraints pushed into the search (null = unconstrained) */
+    protected MiningConstraints constraints;
+
+    /** Closure checks inside the search (prepareClosure decides whether they apply to a run) */
+    private boolean closureJumping = true;
+
+    /** Per transaction, the sorted ids of its items with probability 1; null when closure checks are off */
+    private int[][] certainItems;
+    private static final int[] NO_ITEMS = new int[0];
+
+    /** Items of the node being explored, shared by the whole recursion of a run */
+    protected final PrefixStack prefix = new PrefixStack();
+
+    /** Exploration order of the search tree (speed only for the exact miners) */
+    protected SearchStrategy searchStrategy = SearchStrategy.DEPTH_FIRST;
+
+    /** Reuse first-level structures cached on the Dataset (long-lived processes) */
+    protected boolean warmStart;
+
+    /** Heap budget (null = none) and the structures of the search levels still in progress */
+    private MemoryBudget memoryBudget;
+    private final Deque<Spillable> pending = new ArrayDeque<>();
+    private long spilledBytes;
+
+    /** Cooperative stop: external token, time budget (0 = unlimited) and thread interruption */
+    private CancellationToken cancellationToken;
+    private long timeLimitMillis = 0;
+    private long deadlineNanos;
+    private boolean stopped;
+
+    /** Anytime mining: optional snapshot listener, rate-limited by snapshotIntervalNanos */
+    private ProgressListener progressListener;
+    private long snapshotIntervalNanos;
+    private long runStartNanos;
+    private long lastSnapshotNanos;
+
+    /** Threshold mode: candidates go to the sink, minUtility is driven from outside */
+    private CandidateSink candidateSink;
+    private volatile double externalThreshold;
 
     public abstract Stats runAlgorithm(Dataset db, int k);
 
     /**
-     * Initializes common buffers and resets memory logging.
+     * Mines the Top-K closed itemsets that satisfy the given constraints.
+     * The constraints stay set for later runs of this miner.
+     */
+    public Stats runAlgorithm(Dataset db, int k, MiningConstraints constraints) {
+        setConstraints(constraints);
+        return runAlgorithm(db, k);
+    }
+
+    /**
+     * Mines once at the largest K and derives the results of every smaller K from it:
+     * the Top-K of a smaller K is the prefix of the largest-K result (highest utility first)
+     * and its threshold is the utility of its K-th pattern.
+     * Every derived Stats carries the runtime and memory of that single run, not a
+     * measurement of its own K, so benchmarks that compare K values run each K separately.
+     * Exact only for exact miners: a heuristic miner (U-TKU) overrides this to run each K.
+     * @param ks The K values (duplicates ignored).
+     * @return Stats per K, in ascending order of K.
+     */
+    public SortedMap<Integer, Stats> runAlgorithm(Dataset db, int[] ks) {
+        if (ks.length == 0) {
+            throw new IllegalArgumentException("At least one K is required");
+        }
+        int maxK = Arrays.stream(ks).max().getAsInt();
+        Stats full = runAlgorithm(db, maxK);
+
+        SortedMap<Integer, Stats> results = new TreeMap<>();
+        for (int k : ks) {
+            results.put(k, k == maxK ? full : deriveStats(full, k));
+        }
+        return results;
+    }
+
+    private static Stats deriveStats(Stats full, int k) {
+        List<Itemset> patterns = full.getPatterns();
+        List<Itemset> topK = new ArrayList<>(patterns.subList(0, Math.min(k, patterns.size())));
+
+        Stats stats = new Stats(full.getAlgorithmName());
+        stats.setRuntime(full.getRuntime());
+        stats.setMemory(full.getMemory());
+        stats.setAllocatedMemory(full.getAllocatedMemory());
+        stats.setSpilledMemory(full.getSpilledMemory());
+        stats.setPatternCount(topK.size());
+        // Same rule as savePattern: the threshold only rises once K patterns are held
+        stats.setMinUtilThreshold(topK.size() >= k ? topK.get(k - 1).getUtility() : 0);
+        stats.setCompleted(full.isCompleted());
+        stats.setCounters(full.getCounters());
+        stats.setPatterns(topK);
+        return stats;
+    }
+
+    /**
+     * Settings other than K that change the mined result, as a stable string
+     * (part of the result cache key). Speed-only switches are not included.
+     */
+    public String getParameters() {
+        String parameters = constraints == null ? "" : constraints.toString();
+        if (!closureJumping) {
+            // Without it, closedness relies on the Top-K buffer only
+            parameters += parameters.isEmpty() ? "closureJumping=false" : ";closureJumping=false";
+        }
+        return parameters;
+    }
+
+    /**
+     * Restricts the mined itemsets. Required and excluded items shrink the dataset before
+     * mining; every constraint also prunes the search, so exactly K qualifying itemsets
+     * are returned when that many exist. Pass null (or NONE) to mine unconstrained.
+     */
+    public void setConstraints(MiningConstraints constraints) {
+        this.constraints = (constraints == null || constraints.isEmpty()) ? null : constraints;
+    }
+
+    /**
+     * When enabled, TWUs and first-level structures are taken from (or built once into)
+     * the Dataset's derived cache, so repeated runs on the same Dataset skip them.
+     * Off by default so benchmarks measure full runs.
+     */
+    public void setWarmStart(boolean warmStart) {
+        this.warmStart = warmStart;
+    }
+
+    /**
+     * Enables closure computation during the search (on by default): itemsets proven
+     * non-closed are never evaluated, and branches whose closure adds items are mined
+     * from the closure directly. Switch off to compare with the plain search.
+     * U-TKO and U-EFIM return the same Top-K either way. U-TKU's heuristic result can differ
+     * (proven-closed candidates skip the closed checks and change which ones it keeps), so
+     * the setting is part of getParameters.
+     */
+    public void setClosureJumping(boolean closureJumping) {
+        this.closureJumping = closureJumping;
+    }
+
+    /**
+     * Selects the exploration order. BEST_FIRST evaluates the children of each node
+     * before descending and then descends into the highest-utility child first, so
+     * minUtility tightens earlier and fewer nodes are visited. U-TKO and U-EFIM return the
+     * same Top-K in both orders; U-TKU's heuristic Top-K changes (and can be much lower,
+     * see SearchStrategy), so AlgorithmSelector keeps it depth-first.
+     */
+    public void setSearchStrategy(SearchStrategy searchStrategy) {
+        this.searchStrategy = searchStrategy == null ? SearchStrategy.DEPTH_FIRST : searchStrategy;
+    }
+
+    /**
+     * Sets a heap budget for each run (null = none). When live heap data nears it, the
+     * structures kept for the unfinished search levels are spilled to memory-mapped temp
+     * files and read back when their level resumes: the run gets slower instead of
+     * running out of memory. First-level structures always stay in memory.
+     */
+    public void setMemoryBudget(MemoryBudget memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Gives another miner the settings of this one (everything set through the setters),
+     * e.g. the miner chosen at run time to do the actual mining.
+     */
+    protected void copySettingsTo(MiningAlgorithm other) {
+        other.constraints = constraints;
+        other.closureJumping = closureJumping;
+        other.searchStrategy = searchStrategy;
+        other.warmStart = warmStart;
+        other.memoryBudget = memoryBudget;
+        other.cancellationToken = cancellationToken;
+        other.timeLimitMillis = timeLimitMillis;
+        other.progressListener = progressListener;
+        other.snapshotIntervalNanos = snapshotIntervalNanos;
+        other.candidateSink = candidateSink;
+        other.externalThreshold = externalThreshold;
+    }
+
+    public void setCancellationToken(CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+    }
+
+    /**
+     * Sets a time budget for each run. When exceeded, the search stops and
+     * the run returns partial Stats (best-so-far Top-K and threshold).
+     */
+    public void setTimeLimit(long timeLimitMillis) {
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    /**
+     * Subscribes to Top-K snapshots emitted while the search runs.
+     * At most one snapshot per interval is published when the Top-K changes,
+     * plus a final one when the run ends. Pass null to unsubscribe.
+     */
+    public void setProgressListener(ProgressListener listener, long minIntervalMillis) {
+        this.progressListener = listener;
+        this.snapshotIntervalNanos = minIntervalMillis * 1_000_000L;
+    }
+
+    /**
+     * Switches to threshold mode (used by partitioned mining): no Top-K is kept, every
+     * itemset reaching minUtility is passed to the sink, and minUtility only changes
+     * through {@link #raiseThreshold}. Pass null to return to Top-K mode.
+     */
+    public void setCandidateSink(CandidateSink sink, double initialThreshold) {
+        this.candidateSink = sink;
+        this.externalThreshold = initialThreshold;
+    }
+
+    /**
+     * Raises the threshold of a threshold-mode run; safe to call from another thread.
+     * The search picks it up at its next stop poll.
+     */
+    public void raiseThreshold(double threshold) {
+        if (threshold > externalThreshold) {
+            externalThreshold = threshold;
+        }
+    }
+
+    /**
+     * Polled from the search recursion of every miner.
+     * Also where a threshold raised from another thread is applied.
+     * Once a stop is detected it stays latched so the recursion unwinds quickly.
+     */
+    protected boolean isStopRequested() {
+        if (stopped) {
+            return true;
+        }
+        if (candidateSink != null && externalThreshold > minUtility) {
+            minUtility = externalThreshold;
+        }
+        if ((cancellationToken != null && cancellationToken.isCancelled())
+                || Thread.currentThread().isInterrupted()
+                || (timeLimitMillis > 0 && System.nanoTime() - deadlineNanos > 0)) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    /**
+     * Returns the dataset to mine under the current constraints: only transactions holding
+     * every required item can support a result, and excluded items can never be part of one,
+     * so both are dropped up front (which also tightens every TWU-based bound).
+     * Returns db itself when nothing is filtered.
+     */
+    protected Dataset constrainedDataset(Dataset db) {
+        if (constraints == null || !constraints.filtersTransactions()) {
+            return db;
+        }
+        Dataset filtered = new Dataset();
+        filtered.setMaxItemId(db.getMaxItemId());
+        for (Transaction t : db.getTransactions()) {
+            if (!t.containsAll(constraints.getRequired())) {
+                continue;
+            }
+            List<Item> kept = new ArrayList<>(t.getItems().size());
+            double utility = 0;
+            for (Item item : t.getItems()) {
+                if (!constraints.isExcluded(item.getItemId())) {
+                    kept.add(item);
+                    utility += item.getUtility();
+                }
+            }
+            if (!kept.isEmpty()) {
+                filtered.addTransaction(new Transaction(kept, utility));
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * Enables the closure checks for a run on db (the dataset the tids refer to).
+     * They stay off in threshold mode, where closedness is only known globally, and under
+     * a length limit, where the closure of a qualifying itemset may be too long to qualify.
+     */
+    protected void prepareClosure(Dataset db) {
+        boolean active = closureJumping && candidateSink == null
+                && (constraints == null || constraints.getMaxLength() == Integer.MAX_VALUE);
+        if (!active) {
+            certainItems = null;
+        } else if (warmStart) {
+            certainItems = db.getDerived("closure.certainItems", MiningAlgorithm::buildCertainItems);
+        } else {
+            certainItems = buildCertainItems(db);
+        }
+    }
+
+    /**
+     * Extends the closure checks of the last prepareClosure(db) to the transactions appended
+     * to db since, without rebuilding the rows already there (incremental mining).
+     */
+    protected void extendClosure(Dataset db) {
+        if (certainItems == null) {
+            return;
+        }
+        List<Transaction> transactions = db.getTransactions();
+        int from = certainItems.length;
+        // A copy: with warm start the old array is shared through the Dataset
+        certainItems = Arrays.copyOf(certainItems, transactions.size());
+        for (int tid = from; tid < certainItems.length; tid++) {
+            certainItems[tid] = certainItemsOf(transactions.get(tid));
+        }
+    }
+
+    private static int[][] buildCertainItems(Dataset db) {
+        List<Transaction> transactions = db.getTransactions();
+        int[][] certain = new int[transactions.size()][];
+        for (int tid = 0; tid < certain.length; tid++) {
+            certain[tid] = certainItemsOf(transactions.get(tid));
+        }
+        return certain;
+    }
+
+    private static int[] certainItemsOf(Transaction transaction) {
+        List<Item> items = transaction.getItems(); // sorted by id
+        int count = 0;
+        for (Item item : items) {
+            if (item.getProbability() >= 1.0) count++;
+        }
+        if (count == 0) {
+            return NO_ITEMS;
+        }
+        int[] certain = new int[count];
+        count = 0;
+        for (Item item : items) {
+            if (item.getProbability() >= 1.0) certain[count++] = item.getItemId();
+        }
+        return certain;
+    }
+
+    protected boolean isClosureActive() {
+        return certainItems != null;
+    }
+
+    /**
+     * Closure in the expected-support model: adding item y to X keeps ExpSup(X) only if y
+     * occurs with probability 1 in every transaction containing X (any other item lowers it),
+     * so X is closed iff no such y exists. Callers start from the first supporting tid
+     * and narrow down with retainCertain over the others, stopping once it is empty.
+     * Excluded items are left out: X U {y} could never be saved, so y must not hide X
+     * (the incremental miners run on the unfiltered dataset).
+     * @param itemset Items of X (any order) in itemset[0..length), excluded from the result.
+     * @return Sorted candidate closure items.
+     */
+    protected int[] closureCandidates(int tid, int[] itemset, int length) {
+        int[] certain = certainItems[tid];
+        if (certain.length == 0) {
+            return NO_ITEMS;
+        }
+        int[] result = new int[certain.length];
+        int count = 0;
+        for (int item : certain) {
+            boolean inItemset = false;
+            for (int i = 0; i < length; i++) {
+                if (itemset[i] == item) {
+                    inItemset = true;
+                    break;
+                }
+            }
+            if (!inItemset && (constraints == null || !constraints.isExcluded(item))) result[count++] = item;
+        }
+        return count == 0 ? NO_ITEMS : (count == result.length ? result : Arrays.copyOf(result, count));
+    }
+
+    /**
+     * Keeps the candidates that also occur with probability 1 in transaction tid.
+     */
+    protected int[] retainCertain(int[] candidates, int tid) {
+        int[] certain = certainItems[tid];
+        int count = 0;
+        int j = 0;
+        for (int item : candidates) {
+            while (j < certain.length && certain[j] < item) j++;
+            if (j < certain.length && certain[j] == item) count++;
+        }
+        if (count == candidates.length) {
+            return candidates;
+        }
+        if (count == 0) {
+            return NO_ITEMS;
+        }
+        int[] kept = new int[count];
+        count = 0;
+        j = 0;
+        for (int item : candidates) {
+            while (j < certain.length && certain[j] < item) j++;
+            if (j < certain.length && certain[j] == item) kept[count++] = item;
+        }
+        return kept;
+    }
+
+    /**
+     * Initializes common buffers and starts memory tracking (call from the mining thread).
+     * Pair with teardown in a finally block, so a run that throws does not leave the
+     * tracker's GC listeners registered.
      */
     protected void setup(int k) {
-        this.topKBuffer = new TopKQueue(k);
-        this.minUtility = 0;
-        this.closedIndex.clear();
-        MemoryLogger.getInstance().reset();
+        initRun(k);
+        this.memoryTracker = new MemoryTracker();
+        memoryTracker.start();
+    }
+
+    /**
+     * Initializes common buffers without memory tracking, for callers that never reach
+     * createStats (e.g. micro-benchmarks of savePattern).
+     */
+    protected void initRun(int k) {
+        this.counters = new SearchCounters();
+        this.topK = new ClosedTopK(k, counters, this::recordTopKChange);
+        this.minUtility = candidateSink != null ? externalThreshold : 0;
+        this.prefix.clear();
+        this.stopped = false;
+        this.runStartNanos = System.nanoTime();
+        this.lastSnapshotNanos = runStartNanos;
+        this.deadlineNanos = runStartNanos + timeLimitMillis * 1_000_000L;
+        this.pending.clear();
+        this.spilledBytes = 0;
+    }
+
+    /**
+     * Ends a run started by setup, whether it returned or threw: stops memory tracking
+     * and deletes the spill files of levels left by a stopped or failed search.
+     */
+    protected void teardown() {
+        if (memoryTracker != null) {
+            memoryTracker.stop();
+            memoryTracker = null;
+        }
+        while (!pending.isEmpty()) {
+            pending.pop().release();
+        }
+    }
+
+    /**
+     * Registers the structure of a search level that is about to iterate its children
+     * (no-op without a memory budget). Pair with popPending in a finally block.
+     */
+    protected void pushPending(Spillable structure) {
+        if (memoryBudget != null) {
+            pending.push(structure);
+        }
+    }
+
+    protected void popPending() {
+        if (memoryBudget != null) {
+            pending.pop().release();
+        }
+    }
+
+    /**
+     * Called before descending into a child: when the heap is near the budget, every
+     * pending level is spilled, so only the path being explored stays in memory.
+     */
+    protected void spillPendingIfNearBudget() {
+        if (memoryBudget != null && !pending.isEmpty() && memoryBudget.isNearLimit()) {
+            for (Spillable structure : pending) {
+                spilledBytes += structure.spill();
+            }
+        }
     }
 
     /**
@@ -41,108 +493,143 @@ public abstract class MiningAlgorithm {
      */
     protected Stats createStats(String algoName, long startTime) {
         Stats stats = new Stats(algoName);
-        MemoryLogger.getInstance().checkMemory();
         stats.setRuntime(System.currentTimeMillis() - startTime);
-        stats.setMemory(MemoryLogger.getInstance().getMaxMemory());
-        stats.setPatternCount(topKBuffer.size());
+        memoryTracker.stop();
+        stats.setMemory(memoryTracker.getPeakHeapMemory());
+        stats.setAllocatedMemory(memoryTracker.getAllocatedMemory());
+        stats.setPatternCount(topK.size());
         stats.setMinUtilThreshold(minUtility);
+        stats.setCompleted(!stopped);
+        stats.setCounters(counters);
+        stats.setSpilledMemory(spilledBytes / (1024d * 1024d));
+
+        // Best-so-far patterns, highest utility first
+        List<Itemset> patterns = topK.getPatterns();
+        stats.setPatterns(patterns);
+
+        if (progressListener != null) {
+            progressListener.onSnapshot(new TopKSnapshot(patterns, minUtility, stats.getRuntime(), true));
+        }
         return stats;
     }
 
     /**
-     * Handles Top-K maintenance and Closed Constraint checking for a discovered pattern.
-     * Uses support-based indexing for efficient forward and backward checks.
+     * Handles Top-K maintenance and Closed Constraint checking for a discovered pattern
+     * (see ClosedTopK: support-based indexing for efficient forward and backward checks).
      */
     protected void savePattern(Itemset candidate) {
-        // Early exit if the candidate cannot enter the Top-K queue
-        if (topKBuffer.isFull() && !MathUtils.greaterThan(candidate.getUtility(), minUtility)) {
-             return;
+        savePattern(candidate, false);
+    }
+
+    /**
+     * Same as savePattern for an itemset the search has proven closed (see closureCandidates),
+     * so the support-group checks are skipped.
+     */
+    protected void saveClosedPattern(Itemset candidate) {
+        savePattern(candidate, true);
+    }
+
+    /**
+     * Same as savePattern(Itemset) for the items in items[0..length) (any order, e.g. the
+     * PrefixStack). The Itemset is only created, copying and sorting the items, once the
+     * candidate can enter the Top-K, so rejected candidates allocate nothing.
+     */
+    protected void savePattern(int[] items, int length, double utility, double expectedSupport) {
+        if (canEnter(utility)) {
+            savePattern(new Itemset(Arrays.copyOf(items, length), utility, expectedSupport), false);
         }
+    }
 
-        // Closed Constraint Check: A pattern X is closed if no superset Y exists with the same support.
-        List<Itemset> sameSupportGroup = findGroup(candidate.getExpectedSupport());
+    /**
+     * saveClosedPattern for the items in items[0..length), see savePattern(int[], int, double, double).
+     */
+    protected void saveClosedPattern(int[] items, int length, double utility, double expectedSupport) {
+        if (canEnter(utility)) {
+            savePattern(new Itemset(Arrays.copyOf(items, length), utility, expectedSupport), true);
+        }
+    }
 
-        if (sameSupportGroup != null) {
-            Iterator<Itemset> it = sameSupportGroup.iterator();
-            while (it.hasNext()) {
-                Itemset existing = it.next();
+    // Same threshold gates as savePattern(Itemset, boolean), counted the same way
+    private boolean canEnter(double utility) {
+        boolean enters = candidateSink != null
+                ? MathUtils.greaterThanOrEqual(utility, minUtility)
+                : !(topK.isFull() && !MathUtils.greaterThan(utility, minUtility));
+        if (!enters) {
+            counters.savePatternCall();
+            counters.savePatternRejected();
+        }
+        return enters;
+    }
 
-                // Forward Check: Is candidate a subset of an existing closed pattern?
-                if (MathUtils.isSubsetSorted(candidate.getItems(), existing.getItems())) {
-                    return; 
-                }
+    private void savePattern(Itemset candidate, boolean closed) {
+        counters.savePatternCall();
 
-                // Backward Check: Is candidate a superset of an existing pattern?
-                if (MathUtils.isSubsetSorted(existing.getItems(), candidate.getItems())) {
-                    topKBuffer.remove(existing); 
-                    it.remove(); 
-                }
-            }
-            // Cleanup if group became empty after backward checks
-            if (sameSupportGroup.isEmpty()) {
-                removeGroup(candidate.getExpectedSupport());
-            }
+        // Miners prune by the constraints, this is the final gate
+        if (constraints != null && !constraints.accepts(candidate)) {
+            counters.savePatternRejected();
+            return;
         }
 
-        // Add to queue and handle eviction if necessary
-        Itemset evicted = topKBuffer.add(candidate);
-        
-        if (topKBuffer.getQueue().contains(candidate)) { 
-            addToIndex(candidate);
-            
-            if (evicted != null) {
-                removeFromIndex(evicted);
-            }
-            
-            if (topKBuffer.isFull()) {
-                minUtility = topKBuffer.peek().getUtility();
+        if (candidateSink != null) {
+            if (MathUtils.greaterThanOrEqual(candidate.getUtility(), minUtility)) {
+                candidateSink.accept(candidate);
+            } else {
+                counters.savePatternRejected();
             }
+            return;
         }
-    }
 
-    // Helper: Find group with epsilon-aware support check
-    private List<Itemset> findGroup(double support) {
-        for (Map.Entry<Double, List<Itemset>> entry : closedIndex.entrySet()) {
-            if (MathUtils.equals(entry.getKey(), support)) {
-                return entry.getValue();
+        // Top-K and closed checks (rejections are counted there)
+        if (!topK.add(candidate, closed)) {
+            return;
+        }
+        if (topK.isFull()) {
+            double previous = minUtility;
+            minUtility = topK.getThreshold();
+            if (minUtility != previous) {
+                recordThresholdRaised(previous, candidate.getItems().length);
             }
         }
-        return null;
-    }
 
-    // Helper: Remove group with epsilon-aware support check
-    private void removeGroup(double support) {
-        Double keyToRemove = null;
-        for (Double key : closedIndex.keySet()) {
-            if (MathUtils.equals(key, support)) {
-                keyToRemove = key;
-                break;
-            }
+        // Only a null check on the hot path when nobody subscribes
+        if (progressListener != null) {
+            publishSnapshot();
         }
-        if (keyToRemove != null) {
-            closedIndex.remove(keyToRemove);
+    }
+
+    // JFR events: isEnabled() is a cheap check, so nothing is allocated unless a recording asks for them
+    private void recordTopKChange(String action, Itemset pattern) {
+        TopKChangeEvent event = new TopKChangeEvent();
+        if (event.isEnabled()) {
+            event.algorithm = getClass().getSimpleName();
+            event.action = action;
+            event.length = pattern.getItems().length;
+            event.utility = pattern.getUtility();
+            event.expectedSupport = pattern.getExpectedSupport();
+            event.commit();
         }
     }
 
-    // Helper: Add to index
-    private void addToIndex(Itemset itemset) {
-        double support = itemset.getExpectedSupport();
-        List<Itemset> group = findGroup(support);
-        if (group == null) {
-            group = new ArrayList<>();
-            closedIndex.put(support, group);
+    private void recordThresholdRaised(double oldMinUtility, int depth) {
+        ThresholdRaisedEvent event = new ThresholdRaisedEvent();
+        if (event.isEnabled()) {
+            event.algorithm = getClass().getSimpleName();
+            event.oldMinUtility = oldMinUtility;
+            event.newMinUtility = minUtility;
+            event.depth = depth;
+            event.commit();
         }
-        group.add(itemset);
     }
 
-    // Helper: Remove from index (Fix for Memory Leak)
-    private void removeFromIndex(Itemset itemset) {
-        List<Itemset> group = findGroup(itemset.getExpectedSupport());
-        if (group != null) {
-            group.remove(itemset);
-            if (group.isEmpty()) {
-                removeGroup(itemset.getExpectedSupport());
-            }
+    private void publishSnapshot() {
+        long now = System.nanoTime();
+        if (now - lastSnapshotNanos < snapshotIntervalNanos) {
+            return;
         }
+        lastSnapshotNanos = now;
+
+        List<Itemset> patterns = topK.getPatterns();
+        long elapsedMillis = (now - runStartNanos) / 1_000_000L;
+        progressListener.onSnapshot(new TopKSnapshot(patterns, minUtility, elapsedMillis, false));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,201 @@
+package com.project.algorithms.base;
+
+import com.project.model.Itemset;
+import com.project.utils.MathUtils;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable item and shape constraints on the mined itemsets: items every result must contain,
+ * items no result may contain, a maximum length and a minimum expected support.
+ * Each "with" method returns a new instance, e.g.
+ * {@code MiningConstraints.NONE.require(3, 5).exclude(7).maxLength(4)}.
+ *
+ * Closedness is evaluated among the qualifying itemsets: a result has no qualifying
+ * superset with the same expected support in the Top-K.
+ */
+public final class MiningConstraints {
+    public static final MiningConstraints NONE =
+            new MiningConstraints(new int[0], new int[0], Integer.MAX_VALUE, 0);
+
+    private final int[] required; // sorted, distinct
+    private final int[] excluded; // sorted, distinct
+    private final int maxLength;
+    private final double minExpectedSupport;
+
+    private MiningConstraints(int[] required, int[] excluded, int maxLength, double minExpectedSupport) {
+        this.required = required;
+        this.excluded = excluded;
+        this.maxLength = maxLength;
+        this.minExpectedSupport = minExpectedSupport;
+    }
+
+    /** Every result must contain these items (in addition to those already required) */
+    public MiningConstraints require(int... items) {
+        int[] merged = merge(required, items);
+        for (int item : merged) {
+            if (Arrays.binarySearch(excluded, item) >= 0) {
+                throw new IllegalArgumentException("Item " + item + " is both required and excluded");
+            }
+        }
+        return new MiningConstraints(merged, excluded, maxLength, minExpectedSupport);
+    }
+
+    /** No result may contain these items */
+    public MiningConstraints exclude(int... items) {
+        int[] merged = merge(excluded, items);
+        for (int item : merged) {
+            if (Arrays.binarySearch(required, item) >= 0) {
+                throw new IllegalArgumentException("Item " + item + " is both required and excluded");
+            }
+        }
+        return new MiningConstraints(required, merged, maxLength, minExpectedSupport);
+    }
+
+    public MiningConstraints maxLength(int maxLength) {
+        if (maxLength < 1) {
+            throw new IllegalArgumentException("maxLength must be >= 1");
+        }
+        return new MiningConstraints(required, excluded, maxLength, minExpectedSupport);
+    }
+
+    public MiningConstraints minExpectedSupport(double minExpectedSupport) {
+        if (minExpectedSupport < 0) {
+            throw new IllegalArgumentException("minExpectedSupport must be >= 0");
+        }
+        return new MiningConstraints(required, excluded, maxLength, minExpectedSupport);
+    }
+
+    public int[] getRequired() { return required; }
+    public int[] getExcluded() { return excluded; }
+    public int getMaxLength() { return maxLength; }
+    public double getMinExpectedSupport() { return minExpectedSupport; }
+
+    public boolean isEmpty() {
+        return required.length == 0 && excluded.length == 0
+                && maxLength == Integer.MAX_VALUE && minExpectedSupport == 0;
+    }
+
+    /** True when transactions or items can be dropped before mining */
+    public boolean filtersTransactions() {
+        return required.length > 0 || excluded.length > 0;
+    }
+
+    public boolean isRequired(int item) {
+        return Arrays.binarySearch(required, item) >= 0;
+    }
+
+    public boolean isExcluded(int item) {
+        return Arrays.binarySearch(excluded, item) >= 0;
+    }
+
+    /** Whether expected support alone rules out an itemset (and, being anti-monotone, all its supersets) */
+    public boolean supportTooLow(double expectedSupport) {
+        return minExpectedSupport > 0 && MathUtils.lessThan(expectedSupport, minExpectedSupport);
+    }
+
+    /**
+     * Final check on a pattern about to enter the Top-K.
+     */
+    public boolean accepts(Itemset itemset) {
+        int[] items = itemset.getItems(); // sorted
+        if (items.length > maxLength || supportTooLow(itemset.getExpectedSupport())
+                || !MathUtils.isSubsetSorted(required, items)) {
+            return false;
+        }
+        for (int item : excluded) {
+            if (Arrays.binarySearch(items, item) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Required items not in the given (unsorted) prefix.
+     */
+    public int[] missingFrom(int[] prefix) {
+        return missingFrom(prefix, prefix.length);
+    }
+
+    /**
+     * Required items not in prefix[0..length) (unsorted), e.g. a PrefixStack.
+     */
+    public int[] missingFrom(int[] prefix, int length) {
+        int[] missing = new int[required.length];
+        int count = 0;
+        for (int item : required) {
+            boolean found = false;
+            for (int i = 0; i < length; i++) {
+                if (prefix[i] == item) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                missing[count++] = item;
+            }
+        }
+        return count == missing.length ? missing : Arrays.copyOf(missing, count);
+    }
+
+    /**
+     * Parses the string form written by {@link #toString()} (empty string = no constraints),
+     * e.g. "require=3,5;exclude=7;maxLength=4;minSupport=2.5".
+     */
+    public static MiningConstraints parse(String text) {
+        MiningConstraints constraints = NONE;
+        if (text == null || text.trim().isEmpty()) {
+            return constraints;
+        }
+        for (String part : text.split(";")) {
+            String[] kv = part.split("=", 2);
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Expected key=value: " + part);
+            }
+            String value = kv[1].trim();
+            switch (kv[0].trim()) {
+                case "require": constraints = constraints.require(parseItems(value)); break;
+                case "exclude": constraints = constraints.exclude(parseItems(value)); break;
+                case "maxLength": constraints = constraints.maxLength(Integer.parseInt(value)); break;
+                case "minSupport": constraints = constraints.minExpectedSupport(Double.parseDouble(value)); break;
+                default: throw new IllegalArgumentException("Unknown constraint: " + kv[0]);
+            }
+        }
+        return constraints;
+    }
+
+    public static int[] parseItems(String list) {
+        if (list.isEmpty()) {
+            return new int[0];
+        }
+        return Arrays.stream(list.split(",")).mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+    }
+
+    /** Stable form, also used as part of the result cache key ("" when empty) */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        if (required.length > 0) sb.append("require=").append(join(required)).append(';');
+        if (excluded.length > 0) sb.append("exclude=").append(join(excluded)).append(';');
+        if (maxLength != Integer.MAX_VALUE) sb.append("maxLength=").append(maxLength).append(';');
+        if (minExpectedSupport > 0) sb.append(String.format(Locale.ROOT, "minSupport=%s;", minExpectedSupport));
+        return sb.length() == 0 ? "" : sb.substring(0, sb.length() - 1);
+    }
+
+    private static String join(int[] items) {
+        StringBuilder sb = new StringBuilder();
+        for (int item : items) {
+            if (sb.length() > 0) sb.append(',');
+            sb.append(item);
+        }
+        return sb.toString();
+    }
+
+    private static int[] merge(int[] current, int[] items) {
+        return IntStream.concat(Arrays.stream(current), Arrays.stream(items))
+                .distinct().sorted().toArray();
+    }
+}
@@ -0,0 +1,50 @@
+package com.project.algorithms.base;
+
+import java.util.Arrays;
+
+/**
+ * The items of the pattern currently being explored, in search order (unsorted).
+ * One instance per miner, reused by the whole recursion: a child pushes its items,
+ * explores, and pops them, so no array is allocated per extension. The backing array
+ * is only valid up to size() and must be copied before it is kept.
+ */
+public final class PrefixStack {
+    private int[] items = new int[16];
+    private int size;
+
+    public void push(int item) {
+        if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+        }
+        items[size++] = item;
+    }
+
+    public void push(int[] more) {
+        if (size + more.length > items.length) {
+            items = Arrays.copyOf(items, Math.max(size * 2, size + more.length));
+        }
+        System.arraycopy(more, 0, items, size, more.length);
+        size += more.length;
+    }
+
+    public void pop() {
+        size--;
+    }
+
+    public void pop(int count) {
+        size -= count;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** The backing array; entries at and after size() are stale */
+    public int[] items() {
+        return items;
+    }
+}
@@ -0,0 +1,12 @@
+package com.project.algorithms.base;
+
+/**
+ * Receives rate-limited Top-K snapshots while a miner is running.
+ * Called synchronously on the mining thread, so implementations should return quickly
+ * (e.g. hand the snapshot to another thread). To stop early, cancel the run's
+ * {@link CancellationToken}.
+ */
+@FunctionalInterface
+public interface ProgressListener {
+    void onSnapshot(TopKSnapshot snapshot);
+}
@@ -0,0 +1,125 @@
+package com.project.algorithms.base;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Search instrumentation filled in by the miners during a run.
+ * One instance per run, confined to the mining thread, so plain fields are used (no atomics).
+ * Collection is switched on with -Dtopk.counters=true; when off, ENABLED is a constant false
+ * and the JIT removes every counting call after inlining.
+ */
+public class SearchCounters {
+    public static final boolean ENABLED = Boolean.getBoolean("topk.counters");
+
+    /** Pruning rules applied by the miners */
+    public enum PruneRule {
+        ESTIMATED_UTILITY,  // U-TKU: header-table utility estimate below minUtility
+        DLU,                // U-TKU: local unpromising item discarded from a conditional path
+        REMAINING_UTILITY,  // U-TKO: sum of iutils + rutils below minUtility
+        SUBTREE_UTILITY,    // U-EFIM: sub-tree utility below minUtility
+        CONSTRAINT,         // Any miner: branch cannot satisfy the mining constraints
+        CLOSURE             // Closure holds an item the branch cannot add (U-TKU: the verified itemset is not closed)
+    }
+
+    /** Timed phases of a run (VERIFY is nested inside SEARCH) */
+    public enum Phase { TWU, BUILD, SEARCH, VERIFY }
+
+    private long nodesVisited;
+    private long candidatesGenerated;
+    private final long[] pruned = new long[PruneRule.values().length];
+    private long savePatternCalls;
+    private long savePatternRejections;
+    private long closedCheckComparisons;
+    private long elementsProcessed; // joined / projected elements, conditional tree nodes
+    private final long[] phaseNanos = new long[Phase.values().length];
+
+    public void visitNode() { if (ENABLED) nodesVisited++; }
+    public void candidate() { if (ENABLED) candidatesGenerated++; }
+    public void prune(PruneRule rule) { if (ENABLED) pruned[rule.ordinal()]++; }
+    public void prune(PruneRule rule, long count) { if (ENABLED) pruned[rule.ordinal()] += count; }
+    public void savePatternCall() { if (ENABLED) savePatternCalls++; }
+    public void savePatternRejected() { if (ENABLED) savePatternRejections++; }
+    public void closedCheckComparison() { if (ENABLED) closedCheckComparisons++; }
+    public void elements(long count) { if (ENABLED) elementsProcessed += count; }
+
+    /** Phase start timestamp (0 when disabled, so no clock read happens) */
+    public long startPhase() { return ENABLED ? System.nanoTime() : 0; }
+    public void endPhase(Phase phase, long startNanos) {
+        if (ENABLED) phaseNanos[phase.ordinal()] += System.nanoTime() - startNanos;
+    }
+
+    public long getNodesVisited() { return nodesVisited; }
+    public long getCandidatesGenerated() { return candidatesGenerated; }
+    public long getPruned(PruneRule rule) { return pruned[rule.ordinal()]; }
+    public long getSavePatternCalls() { return savePatternCalls; }
+    public long getSavePatternRejections() { return savePatternRejections; }
+    public long getClosedCheckComparisons() { return closedCheckComparisons; }
+    public long getElementsProcessed() { return elementsProcessed; }
+    public double getPhaseMillis(Phase phase) { return phaseNanos[phase.ordinal()] / 1_000_000.0; }
+
+    /**
+     * Writes every counter (ResultCache entries); read back with readFrom.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeLong(nodesVisited);
+        out.writeLong(candidatesGenerated);
+        writeArray(out, pruned);
+        out.writeLong(savePatternCalls);
+        out.writeLong(savePatternRejections);
+        out.writeLong(closedCheckComparisons);
+        out.writeLong(elementsProcessed);
+        writeArray(out, phaseNanos);
+    }
+
+    /**
+     * Reads counters written by writeTo.
+     * @throws IOException If the rules or phases differ from this version's.
+     */
+    public static SearchCounters readFrom(DataInput in) throws IOException {
+        SearchCounters c = new SearchCounters();
+        c.nodesVisited = in.readLong();
+        c.candidatesGenerated = in.readLong();
+        readArray(in, c.pruned);
+        c.savePatternCalls = in.readLong();
+        c.savePatternRejections = in.readLong();
+        c.closedCheckComparisons = in.readLong();
+        c.elementsProcessed = in.readLong();
+        readArray(in, c.phaseNanos);
+        return c;
+    }
+
+    private static void writeArray(DataOutput out, long[] values) throws IOException {
+        out.writeInt(values.length);
+        for (long value : values) {
+            out.writeLong(value);
+        }
+    }
+
+    private static void readArray(DataInput in, long[] values) throws IOException {
+        if (in.readInt() != values.length) {
+            throw new IOException("Counter layout changed");
+        }
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readLong();
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Nodes: %d | Candidates: %d | Pruned:", nodesVisited, candidatesGenerated));
+        for (PruneRule rule : PruneRule.values()) {
+            if (pruned[rule.ordinal()] > 0) {
+                sb.append(' ').append(rule).append('=').append(pruned[rule.ordinal()]);
+            }
+        }
+        sb.append(String.format(" | Save: %d (rejected %d) | ClosedCmp: %d | Elements: %d",
+            savePatternCalls, savePatternRejections, closedCheckComparisons, elementsProcessed));
+        for (Phase phase : Phase.values()) {
+            sb.append(String.format(" | %s: %.1fms", phase, getPhaseMillis(phase)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,21 @@
+package com.project.algorithms.base;
+
+/**
+ * Order in which a miner explores its search tree. For the exact miners (U-TKO, U-EFIM)
+ * both orders visit the same tree and return the same Top-K (up to ties at the K-th
+ * utility); they differ in how fast minUtility rises and therefore in how many nodes
+ * are pruned. U-TKU is a heuristic and its Top-K depends on the order: best-first lowered
+ * its K-th utility from 361.88 to 331.13 on one set (K=10) and from 844.51 to 645.86 on
+ * another (K=100), so it is part of U-TKU's getParameters and not recommended for it.
+ */
+public enum SearchStrategy {
+    /** Children in the fixed TWU-ascending order, each subtree completed before the next */
+    DEPTH_FIRST,
+
+    /**
+     * At every node, all children are evaluated (and saved) first, then their subtrees
+     * are completed depth-first from the highest-utility child down. The subtree of a
+     * child still depends on the TWU order only, so an exact search stays exact.
+     */
+    BEST_FIRST
+}
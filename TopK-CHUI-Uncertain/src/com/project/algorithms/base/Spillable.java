@@ -0,0 +1,17 @@
+package com.project.algorithms.base;
+
+/**
+ * A search structure that can move its contents to a spill file while the search is
+ * deeper in the tree, and read them back when its level resumes.
+ */
+public interface Spillable {
+    /**
+     * Releases the in-memory contents; the first spill writes them to a file, later
+     * spills reuse it (the contents do not change).
+     * @return Bytes written (0 when already spilled or already on disk).
+     */
+    long spill();
+
+    /** Deletes the spill file; the structure is no longer used */
+    void release();
+}
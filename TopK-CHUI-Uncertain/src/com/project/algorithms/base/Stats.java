@@ -1,14 +1,23 @@
 package com.project.algorithms.base;
 
+import com.project.model.Itemset;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Encapsulates performance statistics for a mining algorithm run.
  */
 public class Stats {
     private String algorithmName = "Unknown";
     private long runtime;
-    private double memory;
+    private double memory;          // Peak heap in use during the run (MB)
+    private double allocatedMemory; // Total allocated by the mining thread (MB)
+    private double spilledMemory;   // Written to spill files under a memory budget (MB)
     private int patternCount;
     private double minUtilThreshold;
+    private boolean completed = true; // false when stopped early (cancel / time limit)
+    private List<Itemset> patterns = Collections.emptyList();
+    private SearchCounters counters = new SearchCounters();
 
     public Stats() {} 
 
@@ -16,21 +25,39 @@ public class Stats {
         this.algorithmName = algorithmName;
     }
 
+    public String getAlgorithmName() { return algorithmName; }
+
     public void setRuntime(long runtime) { this.runtime = runtime; }
     public long getRuntime() { return runtime; }
 
     public void setMemory(double memory) { this.memory = memory; }
     public double getMemory() { return memory; }
 
+    public void setAllocatedMemory(double allocatedMemory) { this.allocatedMemory = allocatedMemory; }
+    public double getAllocatedMemory() { return allocatedMemory; }
+
+    public void setSpilledMemory(double spilledMemory) { this.spilledMemory = spilledMemory; }
+    public double getSpilledMemory() { return spilledMemory; }
+
     public void setPatternCount(int patternCount) { this.patternCount = patternCount; }
     public int getPatternCount() { return patternCount; }
 
     public void setMinUtilThreshold(double minUtilThreshold) { this.minUtilThreshold = minUtilThreshold; }
     public double getMinUtilThreshold() { return minUtilThreshold; }
+
+    public void setCompleted(boolean completed) { this.completed = completed; }
+    public boolean isCompleted() { return completed; }
+
+    public void setPatterns(List<Itemset> patterns) { this.patterns = patterns; }
+    public List<Itemset> getPatterns() { return patterns; }
+
+    public void setCounters(SearchCounters counters) { this.counters = counters; }
+    public SearchCounters getCounters() { return counters; }
     
     @Override
     public String toString() {
-        return String.format("%s | Time: %dms | Mem: %.2fMB | Count: %d | MinUtil: %.5f", 
-            algorithmName, runtime, memory, patternCount, minUtilThreshold);
+        return String.format("%s | Time: %dms | Mem: %.2fMB | Alloc: %.2fMB | Count: %d | MinUtil: %.5f%s%s", 
+            algorithmName, runtime, memory, allocatedMemory, patternCount, minUtilThreshold,
+            spilledMemory > 0 ? String.format(" | Spilled: %.2fMB", spilledMemory) : "", completed ? "" : " | PARTIAL");
     }
 }
\ No newline at end of file
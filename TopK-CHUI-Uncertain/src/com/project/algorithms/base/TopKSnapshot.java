@@ -0,0 +1,33 @@
+package com.project.algorithms.base;
+
+import com.project.model.Itemset;
+import java.util.List;
+
+/**
+ * Immutable view of a miner's Top-K state at some point during a run.
+ * Patterns are sorted by utility (highest first).
+ */
+public class TopKSnapshot {
+    private final List<Itemset> patterns;
+    private final double minUtility;
+    private final long elapsedMillis;
+    private final boolean last; // true for the snapshot emitted when the run ends
+
+    public TopKSnapshot(List<Itemset> patterns, double minUtility, long elapsedMillis, boolean last) {
+        this.patterns = patterns;
+        this.minUtility = minUtility;
+        this.elapsedMillis = elapsedMillis;
+        this.last = last;
+    }
+
+    public List<Itemset> getPatterns() { return patterns; }
+    public double getMinUtility() { return minUtility; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public boolean isLast() { return last; }
+
+    @Override
+    public String toString() {
+        return String.format("Snapshot @%dms | Count: %d | MinUtil: %.5f%s",
+            elapsedMillis, patterns.size(), minUtility, last ? " | FINAL" : "");
+    }
+}
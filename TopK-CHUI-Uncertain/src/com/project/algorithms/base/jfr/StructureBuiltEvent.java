@@ -0,0 +1,59 @@
+package com.project.algorithms.base.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Duration event around building a search structure: a U-EFIM projected database,
+ * a U-TKO joined utility list or a U-TKU conditional tree.
+ * Only builds slower than the threshold (1 ms by default, configurable) are recorded.
+ */
+@Name("com.project.StructureBuilt")
+@Label("Search Structure Built")
+@Category({"Top-K Mining"})
+@Description("Projection, utility-list join or conditional tree built during the search")
+@Threshold("1 ms")
+@StackTrace(false)
+public class StructureBuiltEvent extends Event {
+    public static final String PROJECTION = "PROJECTION";
+    public static final String UTILITY_LIST = "UTILITY_LIST";
+    public static final String CONDITIONAL_TREE = "CONDITIONAL_TREE";
+
+    @Label("Algorithm")
+    public String algorithm;
+
+    @Label("Kind")
+    public String kind;
+
+    @Label("Search Depth")
+    @Description("Length of the pattern the structure was built for")
+    public int depth;
+
+    @Label("Size")
+    @Description("Rows, elements or nodes in the built structure")
+    public long size;
+
+    /** Starts timing a build. */
+    public static StructureBuiltEvent start() {
+        StructureBuiltEvent event = new StructureBuiltEvent();
+        event.begin();
+        return event;
+    }
+
+    /** Ends timing and commits if recording is on and the build exceeded the threshold. */
+    public void finish(String algorithm, String kind, int depth, long size) {
+        end();
+        if (shouldCommit()) {
+            this.algorithm = algorithm;
+            this.kind = kind;
+            this.depth = depth;
+            this.size = size;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.project.algorithms.base.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted when a full Top-K queue raises minUtility.
+ */
+@Name("com.project.ThresholdRaised")
+@Label("Threshold Raised")
+@Category({"Top-K Mining"})
+@Description("minUtility raised by a pattern entering the full Top-K queue")
+@StackTrace(false)
+public class ThresholdRaisedEvent extends Event {
+    @Label("Algorithm")
+    public String algorithm;
+
+    @Label("Old minUtility")
+    public double oldMinUtility;
+
+    @Label("New minUtility")
+    public double newMinUtility;
+
+    @Label("Search Depth")
+    @Description("Length of the pattern that raised the threshold")
+    public int depth;
+}
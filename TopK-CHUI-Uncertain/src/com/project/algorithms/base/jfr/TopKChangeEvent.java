@@ -0,0 +1,40 @@
+package com.project.algorithms.base.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted when a pattern enters or leaves the Top-K queue.
+ * High frequency, so disabled by default even while recording.
+ */
+@Name("com.project.TopKChange")
+@Label("Top-K Change")
+@Category({"Top-K Mining"})
+@Description("Pattern accepted into, evicted from, or removed (not closed) from the Top-K queue")
+@Enabled(false)
+@StackTrace(false)
+public class TopKChangeEvent extends Event {
+    public static final String ACCEPTED = "ACCEPTED";
+    public static final String EVICTED = "EVICTED";
+    public static final String NOT_CLOSED = "NOT_CLOSED";
+
+    @Label("Algorithm")
+    public String algorithm;
+
+    @Label("Action")
+    public String action;
+
+    @Label("Pattern Length")
+    public int length;
+
+    @Label("Expected Utility")
+    public double utility;
+
+    @Label("Expected Support")
+    public double expectedSupport;
+}
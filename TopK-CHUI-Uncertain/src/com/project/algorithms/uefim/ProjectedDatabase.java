@@ -0,0 +1,115 @@
+package com.project.algorithms.uefim;
+
+import com.project.algorithms.base.Spillable;
+import com.project.utils.SpillFile;
+
+/**
+ * Primitive-array (projected) database used by U-EFIM.
+ * Row i holds the remaining items of one transaction together with the
+ * sum of utilities and product of probabilities of the current prefix in it.
+ * Under a memory budget the arrays may be spilled while a deeper level is mined;
+ * call load() before using them again.
+ */
+class ProjectedDatabase implements Spillable {
+    int[][] trans;               // Projected transactions (Items)
+    double[][] utils;            // Raw utilities of the projected items
+    double[][] probs;            // Probabilities of the projected items
+    double[] weights;            // Sub-tree weights (Pruning Power)
+    double[] prefixSumUtils;     // Sum of utilities of the prefix in each transaction
+    double[] prefixProdProbs;    // Product of probabilities of the prefix in each transaction
+    int[] tids;                  // Original transaction of each row (closure checks)
+
+    private final int rows;
+    private SpillFile spillFile; // Copy of the arrays once spilled
+
+    ProjectedDatabase(int[][] trans, double[][] utils, double[][] probs, double[] weights,
+                      double[] prefixSumUtils, double[] prefixProdProbs, int[] tids) {
+        this.trans = trans;
+        this.utils = utils;
+        this.probs = probs;
+        this.weights = weights;
+        this.prefixSumUtils = prefixSumUtils;
+        this.prefixProdProbs = prefixProdProbs;
+        this.tids = tids;
+        this.rows = trans.length;
+    }
+
+    int size() {
+        return rows;
+    }
+
+    @Override
+    public long spill() {
+        if (trans == null) {
+            return 0;
+        }
+        long written = 0;
+        if (spillFile == null) {
+            // Row lengths, the three row arrays, then the per-row columns
+            long bytes = (long) rows * (Integer.BYTES + 3 * Double.BYTES + Integer.BYTES);
+            for (int[] row : trans) {
+                bytes += (long) row.length * (Integer.BYTES + 2 * Double.BYTES);
+            }
+            spillFile = SpillFile.create(bytes);
+            for (int i = 0; i < rows; i++) {
+                spillFile.putInt(trans[i].length);
+                for (int j = 0; j < trans[i].length; j++) {
+                    spillFile.putInt(trans[i][j]);
+                    spillFile.putDouble(utils[i][j]);
+                    spillFile.putDouble(probs[i][j]);
+                }
+                spillFile.putDouble(weights[i]);
+                spillFile.putDouble(prefixSumUtils[i]);
+                spillFile.putDouble(prefixProdProbs[i]);
+                spillFile.putInt(tids[i]);
+            }
+            written = bytes;
+        }
+        trans = null;
+        utils = null;
+        probs = null;
+        weights = null;
+        prefixSumUtils = null;
+        prefixProdProbs = null;
+        tids = null;
+        return written;
+    }
+
+    /** Reads the arrays back if they were spilled */
+    void load() {
+        if (trans != null) {
+            return;
+        }
+        trans = new int[rows][];
+        utils = new double[rows][];
+        probs = new double[rows][];
+        weights = new double[rows];
+        prefixSumUtils = new double[rows];
+        prefixProdProbs = new double[rows];
+        tids = new int[rows];
+        spillFile.position(0);
+        for (int i = 0; i < rows; i++) {
+            int length = spillFile.getInt();
+            trans[i] = new int[length];
+            utils[i] = new double[length];
+            probs[i] = new double[length];
+            for (int j = 0; j < length; j++) {
+                trans[i][j] = spillFile.getInt();
+                utils[i][j] = spillFile.getDouble();
+                probs[i][j] = spillFile.getDouble();
+            }
+            weights[i] = spillFile.getDouble();
+            prefixSumUtils[i] = spillFile.getDouble();
+            prefixProdProbs[i] = spillFile.getDouble();
+            tids[i] = spillFile.getInt();
+        }
+    }
+
+    @Override
+    public void release() {
+        if (spillFile != null) {
+            spillFile.delete();
+            spillFile = null;
+        }
+    }
+}
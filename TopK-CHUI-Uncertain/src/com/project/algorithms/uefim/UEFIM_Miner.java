@@ -1,25 +1,65 @@
 package com.project.algorithms.uefim;
 
 import com.project.algorithms.base.MiningAlgorithm;
+import com.project.algorithms.base.SearchCounters.Phase;
+import com.project.algorithms.base.SearchCounters.PruneRule;
+import com.project.algorithms.base.SearchStrategy;
 import com.project.algorithms.base.Stats;
+import com.project.algorithms.base.jfr.StructureBuiltEvent;
 import com.project.model.Dataset;
 import com.project.model.Item;
-import com.project.model.Itemset;
 import com.project.model.Transaction;
 import com.project.utils.MathUtils;
+import com.project.utils.UtilityKernels;
 
 import java.util.*;
 
 public class UEFIM_Miner extends MiningAlgorithm {
 
+    private static final UtilityKernels KERNELS = UtilityKernels.INSTANCE;
+
+    /** Initial state cached on the Dataset for warm starts (read-only once built) */
+    private static class WarmState {
+        final Map<Integer, Double> twu;
+        final ProjectedDatabase initialDb;
+
+        WarmState(Map<Integer, Double> twu, ProjectedDatabase initialDb) {
+            this.twu = twu;
+            this.initialDb = initialDb;
+        }
+    }
+
     @Override
     public Stats runAlgorithm(Dataset db, int k) {
         long start = System.currentTimeMillis();
 
         setup(k);
+        try {
+            Dataset mined = constrainedDataset(db);
+            ProjectedDatabase initialDb = warmStart ? warmInitialDatabase(mined) : buildInitialDatabase(mined);
+            prepareClosure(mined);
+
+            // 3. Start Search with empty prefix
+            long phaseStart = counters.startPhase();
+            search(initialDb);
+            counters.endPhase(Phase.SEARCH, phaseStart);
+
+            return createStats("U-EFIM", start);
+        } finally {
+            teardown();
+        }
+    }
 
+    /**
+     * Steps 1-2: Computes TWUs and converts the Dataset to primitive arrays,
+     * items sorted by ascending TWU, with an empty prefix in every row.
+     */
+    ProjectedDatabase buildInitialDatabase(Dataset db) {
         // 1. Calculate TWU (Transaction Weighted Utilization)
+        long phaseStart = counters.startPhase();
         this.mapItemToTWU = db.calculateTWUs();
+        counters.endPhase(Phase.TWU, phaseStart);
+        phaseStart = counters.startPhase();
 
         // 2. Convert Database to Primitive Arrays (Optimization)
         int numTrans = db.getTransactions().size();
@@ -51,32 +91,98 @@ public class UEFIM_Miner extends MiningAlgorithm {
             i++;
         }
 
-        // 3. Start Search with empty prefix
         double[] initialPrefixUtils = new double[numTrans]; 
         double[] initialPrefixProbs = new double[numTrans];
         Arrays.fill(initialPrefixProbs, 1.0); // Empty prefix has probability 1.0
+        int[] tids = new int[numTrans];
+        Arrays.setAll(tids, t -> t);
+        counters.endPhase(Phase.BUILD, phaseStart);
 
-        search(transactions, utilities, probabilities, originalTrWeights, initialPrefixUtils, initialPrefixProbs, new int[0]);
+        return new ProjectedDatabase(transactions, utilities, probabilities, originalTrWeights,
+                                     initialPrefixUtils, initialPrefixProbs, tids);
+    }
 
-        return createStats("U-EFIM", start);
+    private ProjectedDatabase warmInitialDatabase(Dataset db) {
+        WarmState state = db.getDerived("uefim.initialDatabase", d -> {
+            UEFIM_Miner builder = new UEFIM_Miner();
+            ProjectedDatabase pdb = builder.buildInitialDatabase(d);
+            return new WarmState(builder.mapItemToTWU, pdb);
+        });
+        this.mapItemToTWU = state.twu;
+        return state.initialDb;
     }
 
     /**
      * Recursive Depth-First Search for High Utility Itemsets
-     * @param trans Projected transactions (Items)
-     * @param utils Projected utilities (Expected Utility)
-     * @param probs Projected probabilities
-     * @param weights Sub-tree weights (Pruning Power)
-     * @param utilityOfPrefix Utility of the prefix pattern in each transaction
-     * @param probabilityOfPrefix Probability of the prefix pattern in each transaction
-     * @param prefix Current pattern prefix
+     * @param pdb Projected database of the prefix (the prefix items are on the PrefixStack)
      */
-    private void search(int[][] trans, double[][] utils, double[][] probs, double[] weights, 
-                        double[] sumUtilityOfPrefix, double[] prodProbabilityOfPrefix, int[] prefix) {
-        
+    private void search(ProjectedDatabase pdb) {
         // A. Calculate Local Utility & Sub-tree Utility
         Map<Integer, Double> localUtility = new HashMap<>();
         Map<Integer, Double> subTreeUtility = new HashMap<>();
+        // Expected support of Prefix U {item}, only needed for a support constraint
+        Map<Integer, Double> localSupport =
+            (constraints != null && constraints.getMinExpectedSupport() > 0) ? new HashMap<>() : null;
+        accumulate(pdb, localUtility, subTreeUtility, localSupport);
+
+        // Constraints: every result below this prefix draws its items from this projection
+        int[] missing = constraints != null ? constraints.missingFrom(prefix.items(), prefix.size()) : null;
+        if (missing != null) {
+            if (localSupport != null) {
+                // Support is anti-monotone: these items are dropped from every projection below
+                for (Map.Entry<Integer, Double> entry : localSupport.entrySet()) {
+                    if (constraints.supportTooLow(entry.getValue())) {
+                        subTreeUtility.remove(entry.getKey());
+                        counters.prune(PruneRule.CONSTRAINT);
+                    }
+                }
+            }
+            for (int item : missing) {
+                if (!isPromising(subTreeUtility.get(item))) {
+                    counters.prune(PruneRule.CONSTRAINT);
+                    return;
+                }
+            }
+        }
+
+        // B. Identify Secondary Items (Items that can be extended)
+        List<Integer> secondaryItems = new ArrayList<>();
+        for (Integer item : subTreeUtility.keySet()) {
+            if (MathUtils.greaterThanOrEqual(subTreeUtility.get(item), minUtility)) {
+                secondaryItems.add(item);
+            } else {
+                counters.prune(PruneRule.SUBTREE_UTILITY);
+            }
+        }
+        secondaryItems.sort((a, b) -> Double.compare(mapItemToTWU.get(a), mapItemToTWU.get(b)));
+
+        // The initial database stays in memory (it may be shared by warm starts)
+        boolean spillable = prefix.size() > 0;
+        if (spillable) {
+            pushPending(pdb);
+        }
+        try {
+            if (searchStrategy == SearchStrategy.BEST_FIRST) {
+                searchBestFirst(pdb, secondaryItems, localUtility, subTreeUtility, missing);
+            } else {
+                searchDepthFirst(pdb, secondaryItems, localUtility, subTreeUtility, missing);
+            }
+        } finally {
+            if (spillable) {
+                popPending();
+            }
+        }
+    }
+
+    // Sums the local utility, sub-tree utility and (optionally) expected support of every item of pdb
+    private void accumulate(ProjectedDatabase pdb, Map<Integer, Double> localUtility,
+                            Map<Integer, Double> subTreeUtility, Map<Integer, Double> localSupport) {
+        int[][] trans = pdb.trans;
+        double[][] utils = pdb.utils;
+        double[][] probs = pdb.probs;
+        double[] weights = pdb.weights;
+        double[] sumUtilityOfPrefix = pdb.prefixSumUtils;
+        double[] prodProbabilityOfPrefix = pdb.prefixProdProbs;
 
         for (int i = 0; i < trans.length; i++) {
             double pSumUtil = sumUtilityOfPrefix[i];
@@ -92,108 +198,347 @@ public class UEFIM_Miner extends MiningAlgorithm {
                 
                 localUtility.put(item, localUtility.getOrDefault(item, 0.0) + expectedUtil);
                 subTreeUtility.put(item, subTreeUtility.getOrDefault(item, 0.0) + weights[i]);
+                if (localSupport != null) {
+                    localSupport.put(item, localSupport.getOrDefault(item, 0.0) + pProdProb * p);
+                }
             }
         }
+    }
 
-        // B. Identify Secondary Items (Items that can be extended)
-        List<Integer> secondaryItems = new ArrayList<>();
-        for (Integer item : subTreeUtility.keySet()) {
-            if (MathUtils.greaterThanOrEqual(subTreeUtility.get(item), minUtility)) {
-                secondaryItems.add(item);
+    // C. Depth-First Search loop
+    private void searchDepthFirst(ProjectedDatabase pdb, List<Integer> secondaryItems,
+                                  Map<Integer, Double> localUtility, Map<Integer, Double> subTreeUtility,
+                                  int[] missing) {
+        for (int itemX : secondaryItems) {
+            if (isStopRequested()) {
+                return;
             }
+            pdb.load(); // May have been spilled while the previous item's branch was mined
+            prefix.push(itemX);
+            int[] closure = evaluate(pdb, itemX, localUtility.getOrDefault(itemX, 0.0), missing);
+            expand(pdb, itemX, closure, subTreeUtility, missing);
+            prefix.pop();
         }
-        secondaryItems.sort((a, b) -> Double.compare(mapItemToTWU.get(a), mapItemToTWU.get(b)));
+    }
 
-        // C. Depth-First Search loop
-        for (int itemX : secondaryItems) {
-            
-            double exactUtility = localUtility.getOrDefault(itemX, 0.0);
-            
-            int[] newPattern = new int[prefix.length + 1];
-            System.arraycopy(prefix, 0, newPattern, 0, prefix.length);
-            newPattern[prefix.length] = itemX;
-
-            if (MathUtils.greaterThanOrEqual(exactUtility, minUtility)) {
-                double expectedSupport = calculateExpectedSupport(trans, probs, prodProbabilityOfPrefix, itemX);
-                savePattern(new Itemset(newPattern, exactUtility, expectedSupport));
-            }
-
-            // 2. Database Projection
-            int[][] nextTrans = new int[trans.length][];
-            double[][] nextUtils = new double[trans.length][];
-            double[][] nextProbs = new double[trans.length][];
-            double[] nextWeights = new double[trans.length];
-            double[] nextPrefixSumUtils = new double[trans.length];
-            double[] nextPrefixProdProbs = new double[trans.length];
-            
-            int validTransCount = 0;
-
-            for (int k = 0; k < trans.length; k++) {
-                int idx = -1;
-                for (int z = 0; z < trans[k].length; z++) {
-                    if (trans[k][z] == itemX) {
-                        idx = z;
-                        break;
-                    }
+    /**
+     * Best-first order: every secondary item is evaluated (and saved) first, then the
+     * items are projected from the highest local utility down. A projection still keeps
+     * the items after itemX in TWU order only, so the search tree is unchanged.
+     */
+    private void searchBestFirst(ProjectedDatabase pdb, List<Integer> secondaryItems,
+                                 Map<Integer, Double> localUtility, Map<Integer, Double> subTreeUtility,
+                                 int[] missing) {
+        int[][] closures = new int[secondaryItems.size()][];
+        for (int i = 0; i < secondaryItems.size(); i++) {
+            if (isStopRequested()) {
+                return;
+            }
+            int itemX = secondaryItems.get(i);
+            prefix.push(itemX);
+            closures[i] = evaluate(pdb, itemX, localUtility.getOrDefault(itemX, 0.0), missing);
+            prefix.pop();
+        }
+
+        Integer[] order = new Integer[secondaryItems.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(localUtility.getOrDefault(secondaryItems.get(b), 0.0),
+                                                    localUtility.getOrDefault(secondaryItems.get(a), 0.0)));
+        for (int i : order) {
+            if (isStopRequested()) {
+                return;
+            }
+            int itemX = secondaryItems.get(i);
+            // minUtility may have risen since the secondary items were selected
+            if (!isPromising(subTreeUtility.get(itemX))) {
+                counters.prune(PruneRule.SUBTREE_UTILITY);
+                continue;
+            }
+            pdb.load();
+            prefix.push(itemX);
+            expand(pdb, itemX, closures[i], subTreeUtility, missing);
+            prefix.pop();
+        }
+    }
+
+    /**
+     * Visits Prefix U {itemX} (on the PrefixStack) and saves it when it is closed and reaches minUtility.
+     * @return Its closure (null when closure checks are off).
+     */
+    private int[] evaluate(ProjectedDatabase pdb, int itemX, double exactUtility, int[] missing) {
+        counters.visitNode();
+        counters.candidate();
+
+        // Closure: Prefix U {itemX} is closed unless some item occurs with probability 1 wherever it does
+        int[] closure = isClosureActive() ? closureOf(pdb, itemX) : null;
+        if (closure != null && closure.length > 0) {
+            return closure; // saved (as the closed itemset) by jumpToClosure
+        }
+
+        if (MathUtils.greaterThanOrEqual(exactUtility, minUtility) && (missing == null || coversRequired(missing, itemX))) {
+            double expectedSupport = calculateExpectedSupport(pdb.trans, pdb.probs, pdb.prefixProdProbs, itemX);
+            if (closure != null) {
+                saveClosedPattern(prefix.items(), prefix.size(), exactUtility, expectedSupport);
+            } else {
+                savePattern(prefix.items(), prefix.size(), exactUtility, expectedSupport);
+            }
+        }
+        return closure;
+    }
+
+    /**
+     * Mines the extensions of Prefix U {itemX} (on the PrefixStack) after evaluate.
+     */
+    private void expand(ProjectedDatabase pdb, int itemX, int[] closure,
+                        Map<Integer, Double> subTreeUtility, int[] missing) {
+        if (closure != null && closure.length > 0) {
+            jumpToClosure(pdb, itemX, closure, subTreeUtility, missing);
+            return;
+        }
+
+        if (missing != null && !canExtend(missing, itemX, prefix.size())) {
+            counters.prune(PruneRule.CONSTRAINT);
+            return;
+        }
+
+        // Database Projection
+        StructureBuiltEvent built = StructureBuiltEvent.start();
+        ProjectedDatabase nextDb = project(pdb, itemX, subTreeUtility);
+        built.finish(getClass().getSimpleName(), StructureBuiltEvent.PROJECTION,
+                     prefix.size(), nextDb == null ? 0 : nextDb.size());
+        if (nextDb != null) {
+            spillPendingIfNearBudget();
+            search(nextDb);
+        }
+    }
+
+    /**
+     * Projects the database on itemX, keeping only the items after itemX whose
+     * sub-tree utility still reaches minUtility.
+     * @return The projected database, or null if no transaction survives.
+     */
+    ProjectedDatabase project(ProjectedDatabase pdb, int itemX, Map<Integer, Double> subTreeUtility) {
+        int[][] trans = pdb.trans;
+        double[][] utils = pdb.utils;
+        double[][] probs = pdb.probs;
+        double[] sumUtilityOfPrefix = pdb.prefixSumUtils;
+        double[] prodProbabilityOfPrefix = pdb.prefixProdProbs;
+
+        int[][] nextTrans = new int[trans.length][];
+        double[][] nextUtils = new double[trans.length][];
+        double[][] nextProbs = new double[trans.length][];
+        double[] nextWeights = new double[trans.length];
+        double[] nextPrefixSumUtils = new double[trans.length];
+        double[] nextPrefixProdProbs = new double[trans.length];
+        int[] nextTids = new int[trans.length];
+        
+        int validTransCount = 0;
+
+        for (int k = 0; k < trans.length; k++) {
+            int idx = -1;
+            for (int z = 0; z < trans[k].length; z++) {
+                if (trans[k][z] == itemX) {
+                    idx = z;
+                    break;
                 }
+            }
+
+            if (idx != -1) {
+                int countValid = 0;
+                double remainingExpectedSum = 0;
 
-                if (idx != -1) {
-                    int countValid = 0;
-                    double remainingExpectedSum = 0;
+                for (int z = idx + 1; z < trans[k].length; z++) {
+                    int itemY = trans[k][z];
+                    if (isPromising(subTreeUtility.get(itemY))) {
+                        countValid++;
+                        // Bound uses sum of expected utilities of remaining items
+                        remainingExpectedSum += (utils[k][z] * probs[k][z]);
+                    }
+                }
 
+                if (countValid > 0) {
+                    int[] pItems = new int[countValid];
+                    double[] pUtils = new double[countValid];
+                    double[] pProbs = new double[countValid];
+                    int c = 0;
+                    
                     for (int z = idx + 1; z < trans[k].length; z++) {
                         int itemY = trans[k][z];
-                        if (MathUtils.greaterThanOrEqual(subTreeUtility.getOrDefault(itemY, 0.0), minUtility)) {
-                            countValid++;
-                            // Bound uses sum of expected utilities of remaining items
-                            remainingExpectedSum += (utils[k][z] * probs[k][z]);
+                        if (isPromising(subTreeUtility.get(itemY))) {
+                            pItems[c] = itemY;
+                            pUtils[c] = utils[k][z];
+                            pProbs[c] = probs[k][z];
+                            c++;
                         }
                     }
 
-                    if (countValid > 0) {
-                        int[] pItems = new int[countValid];
-                        double[] pUtils = new double[countValid];
-                        double[] pProbs = new double[countValid];
-                        int c = 0;
-                        
-                        for (int z = idx + 1; z < trans[k].length; z++) {
-                            int itemY = trans[k][z];
-                            if (MathUtils.greaterThanOrEqual(subTreeUtility.getOrDefault(itemY, 0.0), minUtility)) {
-                                pItems[c] = itemY;
-                                pUtils[c] = utils[k][z];
-                                pProbs[c] = probs[k][z];
-                                c++;
-                            }
-                        }
+                    double newPrefixSumUtil = sumUtilityOfPrefix[k] + utils[k][idx];
+                    double newPrefixProdProb = prodProbabilityOfPrefix[k] * probs[k][idx];
+                    
+                    // Pruning bound: EU(Prefix, T) + sum(EU(remaining items, T))
+                    double newWeight = (newPrefixSumUtil * newPrefixProdProb) + remainingExpectedSum;
 
-                        double newPrefixSumUtil = sumUtilityOfPrefix[k] + utils[k][idx];
-                        double newPrefixProdProb = prodProbabilityOfPrefix[k] * probs[k][idx];
-                        
-                        // Pruning bound: EU(Prefix, T) + sum(EU(remaining items, T))
-                        double newWeight = (newPrefixSumUtil * newPrefixProdProb) + remainingExpectedSum;
-
-                        nextTrans[validTransCount] = pItems;
-                        nextUtils[validTransCount] = pUtils;
-                        nextProbs[validTransCount] = pProbs;
-                        nextWeights[validTransCount] = newWeight;
-                        nextPrefixSumUtils[validTransCount] = newPrefixSumUtil;
-                        nextPrefixProdProbs[validTransCount] = newPrefixProdProb;
-                        validTransCount++;
-                    }
+                    nextTrans[validTransCount] = pItems;
+                    nextUtils[validTransCount] = pUtils;
+                    nextProbs[validTransCount] = pProbs;
+                    nextWeights[validTransCount] = newWeight;
+                    nextPrefixSumUtils[validTransCount] = newPrefixSumUtil;
+                    nextPrefixProdProbs[validTransCount] = newPrefixProdProb;
+                    nextTids[validTransCount] = pdb.tids[k];
+                    validTransCount++;
                 }
             }
+        }
 
-            if (validTransCount > 0) {
-                int[][] finalNextTrans = Arrays.copyOfRange(nextTrans, 0, validTransCount);
-                double[][] finalNextUtils = Arrays.copyOfRange(nextUtils, 0, validTransCount);
-                double[][] finalNextProbs = Arrays.copyOfRange(nextProbs, 0, validTransCount);
-                double[] finalNextWeights = Arrays.copyOfRange(nextWeights, 0, validTransCount);
-                double[] finalNextPrefixSumUtils = Arrays.copyOfRange(nextPrefixSumUtils, 0, validTransCount);
-                double[] finalNextPrefixProdProbs = Arrays.copyOfRange(nextPrefixProdProbs, 0, validTransCount);
-                
-                search(finalNextTrans, finalNextUtils, finalNextProbs, finalNextWeights, finalNextPrefixSumUtils, finalNextPrefixProdProbs, newPattern);
+        counters.elements(validTransCount);
+        if (validTransCount == 0) {
+            return null;
+        }
+        return new ProjectedDatabase(
+            Arrays.copyOfRange(nextTrans, 0, validTransCount),
+            Arrays.copyOfRange(nextUtils, 0, validTransCount),
+            Arrays.copyOfRange(nextProbs, 0, validTransCount),
+            Arrays.copyOfRange(nextWeights, 0, validTransCount),
+            Arrays.copyOfRange(nextPrefixSumUtils, 0, validTransCount),
+            Arrays.copyOfRange(nextPrefixProdProbs, 0, validTransCount),
+            Arrays.copyOfRange(nextTids, 0, validTransCount));
+    }
+
+    // Closure of the itemset on the PrefixStack, itemX its last item
+    private int[] closureOf(ProjectedDatabase pdb, int itemX) {
+        int[] closure = null;
+        for (int i = 0; i < pdb.trans.length; i++) {
+            if (indexOf(pdb.trans[i], itemX) < 0) {
+                continue;
+            }
+            closure = closure == null ? closureCandidates(pdb.tids[i], prefix.items(), prefix.size()) : retainCertain(closure, pdb.tids[i]);
+            if (closure.length == 0) {
+                break;
+            }
+        }
+        return closure;
+    }
+
+    /**
+     * Prefix U {itemX} is not closed: the closure items occur with probability 1 in all its rows.
+     * If they all follow itemX in the row order and are still promising, every closed itemset
+     * below itemX contains them, so the branch is mined from Prefix U {itemX} U closure directly
+     * (its projection is itemX's with the closure items moved into the prefix). Otherwise none
+     * of the branch's itemsets is closed (or they are all below minUtility), and it is skipped.
+     * Row weights keep the closure items at probability 1, which is the same value.
+     */
+    private void jumpToClosure(ProjectedDatabase pdb, int itemX, int[] closure,
+                               Map<Integer, Double> subTreeUtility, int[] missing) {
+        double twuX = mapItemToTWU.get(itemX);
+        for (int item : closure) {
+            double twu = mapItemToTWU.get(item);
+            boolean after = twu > twuX || (twu == twuX && item > itemX); // row order: TWU, then id
+            if (!after || !isPromising(subTreeUtility.get(item))) {
+                counters.prune(PruneRule.CLOSURE);
+                return;
+            }
+        }
+
+        StructureBuiltEvent built = StructureBuiltEvent.start();
+        ProjectedDatabase nextDb = absorb(project(pdb, itemX, subTreeUtility), closure);
+        built.finish(getClass().getSimpleName(), StructureBuiltEvent.PROJECTION,
+                     prefix.size() + closure.length, nextDb.size());
+
+        // Every row of itemX holds the closure items, so no row was dropped by the projection
+        double utility = KERNELS.dot(nextDb.prefixSumUtils, nextDb.prefixProdProbs, nextDb.size());
+        double expectedSupport = KERNELS.sum(nextDb.prefixProdProbs, nextDb.size());
+        int[] stillMissing = missing == null ? null : without(missing, closure);
+        prefix.push(closure);
+        if (MathUtils.greaterThanOrEqual(utility, minUtility)
+                && (stillMissing == null || coversRequired(stillMissing, itemX))) {
+            saveClosedPattern(prefix.items(), prefix.size(), utility, expectedSupport);
+        }
+
+        if (stillMissing != null && !canExtend(stillMissing, itemX, prefix.size())) {
+            counters.prune(PruneRule.CONSTRAINT);
+        } else {
+            spillPendingIfNearBudget();
+            search(nextDb);
+        }
+        prefix.pop(closure.length);
+    }
+
+    /**
+     * Moves the closure items of every row into the prefix (their probability is 1, so
+     * only the prefix utility changes); rows aligned with pdb.
+     */
+    private static ProjectedDatabase absorb(ProjectedDatabase pdb, int[] closure) {
+        int n = pdb.size();
+        int[][] trans = new int[n][];
+        double[][] utils = new double[n][];
+        double[][] probs = new double[n][];
+        double[] prefixSumUtils = new double[n];
+        for (int i = 0; i < n; i++) {
+            int[] row = pdb.trans[i];
+            int[] items = new int[row.length - closure.length];
+            double[] u = new double[items.length];
+            double[] p = new double[items.length];
+            double absorbed = 0;
+            int c = 0;
+            for (int z = 0; z < row.length; z++) {
+                if (Arrays.binarySearch(closure, row[z]) >= 0) {
+                    absorbed += pdb.utils[i][z];
+                } else {
+                    items[c] = row[z];
+                    u[c] = pdb.utils[i][z];
+                    p[c] = pdb.probs[i][z];
+                    c++;
+                }
+            }
+            trans[i] = items;
+            utils[i] = u;
+            probs[i] = p;
+            prefixSumUtils[i] = pdb.prefixSumUtils[i] + absorbed;
+        }
+        return new ProjectedDatabase(trans, utils, probs, pdb.weights, prefixSumUtils, pdb.prefixProdProbs, pdb.tids);
+    }
+
+    private static int indexOf(int[] row, int item) {
+        for (int z = 0; z < row.length; z++) {
+            if (row[z] == item) {
+                return z;
+            }
+        }
+        return -1;
+    }
+
+    private static int[] without(int[] items, int[] removed) {
+        return Arrays.stream(items).filter(item -> Arrays.binarySearch(removed, item) < 0).toArray();
+    }
+
+    // Items missing from the map were removed by a constraint
+    private boolean isPromising(Double subTreeUtil) {
+        return subTreeUtil != null && MathUtils.greaterThanOrEqual(subTreeUtil, minUtility);
+    }
+
+    // Prefix U {itemX} holds every required item
+    private static boolean coversRequired(int[] missing, int itemX) {
+        return missing.length == 0 || (missing.length == 1 && missing[0] == itemX);
+    }
+
+    /**
+     * Whether the extensions of Prefix U {itemX} can still qualify: below the length limit,
+     * and no missing required item ordered strictly before itemX (rows are sorted by
+     * ascending TWU, so such an item is never in the projection).
+     */
+    private boolean canExtend(int[] missing, int itemX, int length) {
+        if (length >= constraints.getMaxLength()) {
+            return false;
+        }
+        double twuX = mapItemToTWU.get(itemX);
+        for (int item : missing) {
+            if (item != itemX && mapItemToTWU.get(item) < twuX) {
+                return false;
             }
         }
+        return true;
     }
 
     private double calculateExpectedSupport(int[][] trans, double[][] probs, double[] probOfPrefix, int itemX) {
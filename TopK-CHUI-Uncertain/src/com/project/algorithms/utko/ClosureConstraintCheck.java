@@ -0,0 +1,79 @@
+package com.project.algorithms.utko;
+
+import com.project.algorithms.base.MiningConstraints;
+import com.project.algorithms.base.Stats;
+import com.project.manager.DataLoader;
+import com.project.model.Dataset;
+import com.project.model.Itemset;
+import com.project.model.Transaction;
+
+import java.util.*;
+
+/**
+ * Regression check: the incremental and sliding-window miners run on the unfiltered
+ * dataset, so an excluded item with probability 1 must not count towards a closure
+ * (X U {e} is never saved, and X would be lost with it). Both must report the same
+ * Top-K as U-TKO under the same exclusion.
+ *
+ * Usage: java -cp bin com.project.algorithms.utko.ClosureConstraintCheck
+ */
+public class ClosureConstraintCheck {
+
+    private static final String[] LINES = {
+            "1 2:15:10 5:0.9 1.0",
+            "1 2 3:17:10 5 2:0.8 1.0 0.5",
+            "3 4:9:4 5:0.7 0.6",
+            "1 2 4:20:10 5 5:0.5 1.0 0.9",
+    };
+    private static final int K = 5;
+
+    public static void main(String[] args) {
+        MiningConstraints constraints = MiningConstraints.NONE.exclude(2);
+        List<Transaction> transactions = new ArrayList<>();
+        for (String line : LINES) {
+            transactions.add(DataLoader.parseTransaction(line));
+        }
+
+        Dataset db = new Dataset();
+        transactions.forEach(db::addTransaction);
+        List<String> expected = signature(new UTKO_Miner().runAlgorithm(db, K, constraints));
+
+        // Incremental: two rows mined, two appended (closure rows extended, not rebuilt)
+        IncrementalUTKO_Miner incremental = new IncrementalUTKO_Miner();
+        Dataset prefix = new Dataset();
+        transactions.subList(0, 2).forEach(prefix::addTransaction);
+        incremental.runAlgorithm(prefix, K, constraints);
+        List<String> incrementalResult = signature(incremental.appendTransactions(transactions.subList(2, 4)));
+
+        // Sliding window holding every row, one batch per row
+        SlidingWindowUTKO_Miner sliding = new SlidingWindowUTKO_Miner(LINES.length, K);
+        sliding.setConstraints(constraints);
+        Stats last = null;
+        for (Transaction t : transactions) {
+            last = sliding.addBatch(Collections.singletonList(t));
+        }
+        List<String> slidingResult = signature(last);
+
+        boolean ok = report("U-TKO", expected, expected)
+                & report("Incremental U-TKO", incrementalResult, expected)
+                & report("Sliding-window U-TKO", slidingResult, expected);
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean report(String name, List<String> actual, List<String> expected) {
+        boolean same = actual.equals(expected);
+        System.out.printf("%-22s %s %s%n", name, same ? "OK  " : "FAIL", actual);
+        return same;
+    }
+
+    private static List<String> signature(Stats stats) {
+        List<String> result = new ArrayList<>();
+        for (Itemset p : stats.getPatterns()) {
+            result.add(Arrays.toString(p.getItems()) + String.format(Locale.ROOT, "=%.4f", p.getUtility()));
+        }
+        Collections.sort(result);
+        return result;
+    }
+}
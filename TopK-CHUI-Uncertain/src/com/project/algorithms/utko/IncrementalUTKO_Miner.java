@@ -0,0 +1,153 @@
+package com.project.algorithms.utko;
+
+import com.project.algorithms.base.SearchCounters.Phase;
+import com.project.algorithms.base.Stats;
+import com.project.model.Dataset;
+import com.project.model.Item;
+import com.project.model.Itemset;
+import com.project.model.Transaction;
+
+import java.util.*;
+
+/**
+ * U-TKO that keeps its first-level Utility Lists between runs and maintains the Top-K
+ * as transactions are appended.
+ *
+ * An itemset that occurs in none of the new transactions keeps its expected utility,
+ * expected support and closedness, so the previous Top-K patterns of that kind are carried
+ * over and only itemsets whose utility list reaches a new tid are re-explored.
+ * New tids are larger than all old ones, so that test is a look at the last element.
+ *
+ * The item order is frozen at the first run (new items go last). Any fixed order keeps the
+ * remaining-utility bound valid; a stale TWU order only prunes less tightly.
+ */
+public class IncrementalUTKO_Miner extends UTKO_Miner {
+
+    private Dataset database;
+    private int k;
+    private List<UtilityList> firstLevel;          // Rank order, new items appended
+    private Map<Integer, UtilityList> mapIdToUL;
+    private List<Itemset> patterns = Collections.emptyList();
+    private boolean resultComplete;
+
+    @Override
+    public Stats runAlgorithm(Dataset db, int k) {
+        long start = System.currentTimeMillis();
+
+        setup(k);
+        try {
+            this.database = db;
+            this.k = k;
+            this.minTid = 0;
+
+            firstLevel = buildInitialUtilityLists(db);
+            prepareClosure(db);
+            mapIdToUL = new HashMap<>();
+            for (UtilityList ul : firstLevel) {
+                mapIdToUL.put(ul.getItemId(), ul);
+            }
+
+            long phaseStart = counters.startPhase();
+            search(firstLevel, null);
+            counters.endPhase(Phase.SEARCH, phaseStart);
+
+            return remember(createStats("U-TKO", start));
+        } finally {
+            teardown();
+        }
+    }
+
+    /**
+     * Appends transactions to the Dataset of the last run and updates the Top-K.
+     * Falls back to a full run if the previous result was partial.
+     * @param batch Transactions to append, in order.
+     * @return Stats of the update (patterns = the current Top-K over all transactions).
+     */
+    public Stats appendTransactions(List<Transaction> batch) {
+        if (database == null) {
+            throw new IllegalStateException("runAlgorithm must be called before appendTransactions");
+        }
+        if (!resultComplete) {
+            for (Transaction t : batch) {
+                database.addTransaction(t);
+                updateMaxItemId(t);
+            }
+            return runAlgorithm(database, k);
+        }
+
+        long start = System.currentTimeMillis();
+        setup(k);
+        try {
+            int firstNewTid = database.getTransactions().size();
+
+            // 1. Append to the Dataset, update TWUs in place and rank unseen items last
+            long phaseStart = counters.startPhase();
+            for (Transaction t : batch) {
+                database.addTransaction(t);
+                updateMaxItemId(t);
+                double etu = t.getExpectedTransactionUtility();
+                for (Item item : t.getItems()) {
+                    int itemId = item.getItemId();
+                    mapItemToTWU.merge(itemId, etu, Double::sum);
+                    if (!mapItemToRank.containsKey(itemId)) {
+                        mapItemToRank.put(itemId, mapItemToRank.size());
+                        UtilityList ul = new UtilityList(itemId);
+                        firstLevel.add(ul);
+                        mapIdToUL.put(itemId, ul);
+                    }
+                }
+            }
+            counters.endPhase(Phase.TWU, phaseStart);
+
+            // 2. Extend the first-level Utility Lists with the new tids
+            phaseStart = counters.startPhase();
+            int tid = firstNewTid;
+            for (Transaction t : batch) {
+                appendElements(t, tid++, mapIdToUL);
+            }
+            extendClosure(database);
+            counters.endPhase(Phase.BUILD, phaseStart);
+
+            // 3. Carry over unaffected patterns; they also seed minUtility for the search
+            for (Itemset pattern : patterns) {
+                if (!occursIn(batch, pattern)) {
+                    savePattern(pattern);
+                }
+            }
+
+            // 4. Re-explore only itemsets occurring in a new transaction
+            phaseStart = counters.startPhase();
+            minTid = firstNewTid;
+            search(firstLevel, null);
+            minTid = 0;
+            counters.endPhase(Phase.SEARCH, phaseStart);
+
+            return remember(createStats("U-TKO", start));
+        } finally {
+            teardown();
+        }
+    }
+
+    private Stats remember(Stats stats) {
+        this.patterns = stats.getPatterns();
+        this.resultComplete = stats.isCompleted();
+        return stats;
+    }
+
+    private void updateMaxItemId(Transaction t) {
+        for (int itemId : t.getItemIds()) {
+            if (itemId > database.getMaxItemId()) {
+                database.setMaxItemId(itemId);
+            }
+        }
+    }
+
+    private static boolean occursIn(List<Transaction> batch, Itemset pattern) {
+        for (Transaction t : batch) {
+            if (t.containsAll(pattern.getItems())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,108 @@
+package com.project.algorithms.utko;
+
+import com.project.algorithms.base.SearchCounters.Phase;
+import com.project.algorithms.base.Stats;
+import com.project.model.Dataset;
+import com.project.model.Itemset;
+import com.project.model.Transaction;
+
+import java.util.*;
+
+/**
+ * Top-K closed expected-utility mining over the last W batches of a stream.
+ *
+ * On every slide the oldest batch is retired and the first-level Utility Lists are rebuilt
+ * from the transactions in the window, in their current TWU order, so the work per batch is
+ * bounded by the window and not by the stream length. Previous Top-K patterns that occur in
+ * neither the arriving nor the retired batch keep their exact utility, support and closedness;
+ * they are re-inserted first and raise minUtility before the search starts.
+ */
+public class SlidingWindowUTKO_Miner extends UTKO_Miner {
+
+    private final int windowBatches;
+    private int k;
+    private final ArrayDeque<List<Transaction>> window = new ArrayDeque<>();
+    private int windowTransactionCount;
+    private List<Itemset> patterns = Collections.emptyList();
+
+    public SlidingWindowUTKO_Miner(int windowBatches, int k) {
+        if (windowBatches < 1 || k < 1) {
+            throw new IllegalArgumentException("windowBatches and k must be >= 1");
+        }
+        this.windowBatches = windowBatches;
+        this.k = k;
+    }
+
+    /**
+     * Mines a static Dataset as a window holding a single batch.
+     */
+    @Override
+    public Stats runAlgorithm(Dataset db, int k) {
+        this.k = k;
+        window.clear();
+        windowTransactionCount = 0;
+        patterns = Collections.emptyList();
+        return addBatch(db.getTransactions());
+    }
+
+    /**
+     * Slides the window: adds the batch, retires the oldest one if the window is full
+     * and reports the Top-K of the transactions now in the window.
+     */
+    public Stats addBatch(List<Transaction> batch) {
+        long start = System.currentTimeMillis();
+        setup(k);
+        try {
+            window.addLast(batch);
+            windowTransactionCount += batch.size();
+            List<Transaction> expired = window.size() > windowBatches ? window.removeFirst() : Collections.emptyList();
+            windowTransactionCount -= expired.size();
+
+            Dataset windowDb = new Dataset();
+            for (List<Transaction> b : window) {
+                for (Transaction t : b) {
+                    windowDb.addTransaction(t);
+                }
+            }
+            List<UtilityList> listOfUtilityLists = buildInitialUtilityLists(windowDb);
+            prepareClosure(windowDb);
+
+            // Seed with patterns the slide cannot have changed
+            for (Itemset pattern : patterns) {
+                if (!occursIn(batch, pattern) && !occursIn(expired, pattern)) {
+                    savePattern(pattern);
+                }
+            }
+
+            long phaseStart = counters.startPhase();
+            search(listOfUtilityLists, null);
+            counters.endPhase(Phase.SEARCH, phaseStart);
+
+            Stats stats = createStats("U-TKO-SW", start);
+            // A partial result must not seed the next slide
+            this.patterns = stats.isCompleted() ? stats.getPatterns() : Collections.emptyList();
+            return stats;
+        } finally {
+            teardown();
+        }
+    }
+
+    /** Number of batches currently in the window */
+    public int getWindowSize() {
+        return window.size();
+    }
+
+    /** Number of transactions currently in the window */
+    public int getWindowTransactionCount() {
+        return windowTransactionCount;
+    }
+
+    private static boolean occursIn(List<Transaction> transactions, Itemset pattern) {
+        for (Transaction t : transactions) {
+            if (t.containsAll(pattern.getItems())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
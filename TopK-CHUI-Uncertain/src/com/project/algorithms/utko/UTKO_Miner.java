@@ -1,10 +1,13 @@
 package com.project.algorithms.utko;
 
 import com.project.algorithms.base.MiningAlgorithm;
+import com.project.algorithms.base.SearchCounters.Phase;
+import com.project.algorithms.base.SearchCounters.PruneRule;
+import com.project.algorithms.base.SearchStrategy;
 import com.project.algorithms.base.Stats;
+import com.project.algorithms.base.jfr.StructureBuiltEvent;
 import com.project.model.Dataset;
 import com.project.model.Item;
-import com.project.model.Itemset;
 import com.project.model.Transaction;
 import com.project.utils.MathUtils;
 
@@ -12,17 +15,61 @@ import java.util.*;
 
 public class UTKO_Miner extends MiningAlgorithm {
 
-    private Map<Integer, Integer> mapItemToRank;
+    Map<Integer, Integer> mapItemToRank;
+
+    /** First-level state cached on the Dataset for warm starts (read-only once built) */
+    private static class WarmState {
+        final Map<Integer, Double> twu;
+        final Map<Integer, Integer> ranks;
+        final List<UtilityList> lists;
+
+        WarmState(Map<Integer, Double> twu, Map<Integer, Integer> ranks, List<UtilityList> lists) {
+            this.twu = twu;
+            this.ranks = ranks;
+            this.lists = lists;
+        }
+    }
+
+    /** Only utility lists with an element at or after this tid are explored (incremental mode) */
+    int minTid = 0;
+
+    /** Returned by evaluate for a dead branch (closures are never this instance) */
+    private static final int[] PRUNED = new int[0];
 
     @Override
     public Stats runAlgorithm(Dataset db, int k) {
         long start = System.currentTimeMillis();
 
         setup(k);
+        try {
+            Dataset mined = constrainedDataset(db);
+            List<UtilityList> listOfUtilityLists = warmStart ? warmUtilityLists(mined) : buildInitialUtilityLists(mined);
+            prepareClosure(mined);
+
+            // Step 3: Recursive Mining
+            // Start with empty int[] prefix
+            long phaseStart = counters.startPhase();
+            search(listOfUtilityLists, null);
+            counters.endPhase(Phase.SEARCH, phaseStart);
+
+            return createStats("U-TKO", start);
+        } finally {
+            teardown();
+        }
+    }
+
+    /**
+     * Steps 1-2: Computes TWUs and item ranks, then builds the first-level Utility Lists
+     * in ascending TWU order.
+     */
+    List<UtilityList> buildInitialUtilityLists(Dataset db) {
         this.mapItemToRank = new HashMap<>();
 
         // Step 1: Calculate TWU (Transaction Weighted Utilization)
+        long phaseStart = counters.startPhase();
         this.mapItemToTWU = db.calculateTWUs();
+        counters.endPhase(Phase.TWU, phaseStart);
+        phaseStart = counters.startPhase();
 
         List<Integer> allItems = new ArrayList<>(mapItemToTWU.keySet());
         // Sort Ascending by TWU for efficient pruning
@@ -44,96 +91,397 @@ public class UTKO_Miner extends MiningAlgorithm {
 
         int tid = 0;
         for (Transaction t : db.getTransactions()) {
-            List<Item> sortedItems = new ArrayList<>();
-            for (Item item : t.getItems()) {
-                if (mapItemToRank.containsKey(item.getItemId())) {
-                    sortedItems.add(item);
-                }
-            }
-            // Sort items in transaction by Rank (Ascending)
-            sortedItems.sort((a, b) -> Integer.compare(
-                mapItemToRank.get(a.getItemId()), 
-                mapItemToRank.get(b.getItemId())
-            ));
-
-            double remainingUtility = 0;
-            // Iterate backwards to calculate Remaining Utility
-            for (int i = sortedItems.size() - 1; i >= 0; i--) {
-                Item item = sortedItems.get(i);
-                double rawUtil = item.getUtility();
-                double prob = item.getProbability();
-                
-                // For U-TKO: Element = {tid, sumUtility, prodProbability, rutil}
-                Element element = new Element(tid, rawUtil, prob, remainingUtility);
-                mapIdToUL.get(item.getItemId()).addElement(element);
+            appendElements(t, tid, mapIdToUL);
+            tid++;
+        }
+        counters.endPhase(Phase.BUILD, phaseStart);
+        return listOfUtilityLists;
+    }
+
+    private List<UtilityList> warmUtilityLists(Dataset db) {
+        WarmState state = db.getDerived("utko.firstLevel", d -> {
+            UTKO_Miner builder = new UTKO_Miner();
+            List<UtilityList> lists = builder.buildInitialUtilityLists(d);
+            return new WarmState(builder.mapItemToTWU, builder.mapItemToRank, lists);
+        });
+        this.mapItemToTWU = state.twu;
+        this.mapItemToRank = state.ranks;
+        return state.lists;
+    }
 
-                remainingUtility += item.getExpectedUtility();
+    /**
+     * Appends the elements of transaction tid to the first-level Utility Lists.
+     * Tids must be appended in increasing order so every list stays tid-ordered.
+     */
+    void appendElements(Transaction t, int tid, Map<Integer, UtilityList> mapIdToUL) {
+        List<Item> sortedItems = new ArrayList<>();
+        for (Item item : t.getItems()) {
+            if (mapItemToRank.containsKey(item.getItemId())) {
+                sortedItems.add(item);
             }
-            tid++;
         }
+        // Sort items in transaction by Rank (Ascending)
+        sortedItems.sort((a, b) -> Integer.compare(
+            mapItemToRank.get(a.getItemId()), 
+            mapItemToRank.get(b.getItemId())
+        ));
 
-        // Step 3: Recursive Mining
-        // Start with empty int[] prefix
-        search(listOfUtilityLists, new int[0], null);
+        double remainingUtility = 0;
+        // Iterate backwards to calculate Remaining Utility
+        for (int i = sortedItems.size() - 1; i >= 0; i--) {
+            Item item = sortedItems.get(i);
+            double rawUtil = item.getUtility();
+            double prob = item.getProbability();
+            
+            // For U-TKO: Element = {tid, sumUtility, prodProbability, rutil}
+            Element element = new Element(tid, rawUtil, prob, remainingUtility);
+            mapIdToUL.get(item.getItemId()).addElement(element);
 
-        return createStats("U-TKO", start);
+            remainingUtility += item.getExpectedUtility();
+        }
     }
 
     /**
      * Recursive Search Method
      * @param uls List of UtilityLists for extensions
-     * @param prefixIds Current prefix pattern (int[])
-     * @param prefixUL UtilityList of the prefix (used for intersection math)
+     * @param prefixUL UtilityList of the prefix (used for intersection math); the prefix items are on the PrefixStack
+     */
+    void search(List<UtilityList> uls, UtilityList prefixUL) {
+        // Constraints: every result below this prefix extends it with items of uls
+        int[] missing = null;
+        if (constraints != null) {
+            missing = constraints.missingFrom(prefix.items(), prefix.size());
+            if (missing.length > 0 && !containsAllItems(uls, missing)) {
+                counters.prune(PruneRule.CONSTRAINT);
+                return;
+            }
+        }
+
+        // First-level lists stay in memory (shared by warm starts, extended by incremental mining)
+        UtilityListLevel level = prefixUL != null ? new UtilityListLevel(uls) : null;
+        if (level != null) {
+            pushPending(level);
+        }
+        try {
+            if (searchStrategy == SearchStrategy.BEST_FIRST) {
+                searchBestFirst(uls, prefixUL, missing);
+            } else {
+                searchDepthFirst(uls, prefixUL, missing);
+            }
+        } finally {
+            if (level != null) {
+                popPending();
+            }
+        }
+    }
+
+    private void searchDepthFirst(List<UtilityList> uls, UtilityList prefixUL, int[] missing) {
+        for (int i = 0; i < uls.size(); i++) {
+            if (isStopRequested()) {
+                return;
+            }
+            prefix.push(uls.get(i).getItemId());
+            int[] closure = evaluate(uls.get(i), missing);
+            if (closure != PRUNED) {
+                expand(uls, i, closure, prefixUL, missing);
+            }
+            prefix.pop();
+        }
+    }
+
+    /**
+     * Best-first order: every X of the list is evaluated (and saved) before any
+     * extension is built, then the branches are mined from the highest utility X down.
+     * The extensions of X are still the later-ranked lists, so no itemset is skipped
+     * or visited twice.
      */
-    private void search(List<UtilityList> uls, int[] prefixIds, UtilityList prefixUL) {
+    private void searchBestFirst(List<UtilityList> uls, UtilityList prefixUL, int[] missing) {
+        int[][] closures = new int[uls.size()][];
+        List<Integer> order = new ArrayList<>();
         for (int i = 0; i < uls.size(); i++) {
-            UtilityList X = uls.get(i);
+            if (isStopRequested()) {
+                return;
+            }
+            prefix.push(uls.get(i).getItemId());
+            closures[i] = evaluate(uls.get(i), missing);
+            prefix.pop();
+            if (closures[i] != PRUNED) {
+                order.add(i);
+            }
+        }
 
-            // Pruning: If sum(iutils + rutils) < minUtility, this branch is dead.
-            if (MathUtils.lessThan(X.getSumUtilities(), minUtility)) {
+        order.sort((a, b) -> Double.compare(uls.get(b).getSumIutils(), uls.get(a).getSumIutils()));
+        for (int i : order) {
+            if (isStopRequested()) {
+                return;
+            }
+            // minUtility may have risen since X was evaluated
+            if (MathUtils.lessThan(uls.get(i).getSumUtilities(), minUtility)) {
+                counters.prune(PruneRule.REMAINING_UTILITY);
                 continue;
             }
+            prefix.push(uls.get(i).getItemId());
+            expand(uls, i, closures[i], prefixUL, missing);
+            prefix.pop();
+        }
+    }
 
-            // Create new pattern: Prefix + X
-            int[] newPattern = new int[prefixIds.length + 1];
-            System.arraycopy(prefixIds, 0, newPattern, 0, prefixIds.length);
-            newPattern[prefixIds.length] = X.getItemId();
-            
-            // 1. Check if this pattern itself is a High Utility Itemset
-            if (MathUtils.greaterThanOrEqual(X.getSumIutils(), minUtility)) {
-                Itemset itemset = new Itemset(newPattern, X.getSumIutils(), X.getExpectedSupport());
-                savePattern(itemset); // Generic method handles Closed check & Top-K logic
+    /**
+     * Visits Prefix U X (on the PrefixStack): applies the node pruning and saves the pattern when it is closed.
+     * @return PRUNED if the branch is dead, otherwise X's closure (null when closure checks are off).
+     */
+    private int[] evaluate(UtilityList X, int[] missing) {
+        counters.visitNode();
+
+        // Incremental mode: X and all its extensions are unchanged by the new tids
+        if (X.getLastTid() < minTid) {
+            return PRUNED;
+        }
+
+        // Pruning: If sum(iutils + rutils) < minUtility, this branch is dead.
+        if (MathUtils.lessThan(X.getSumUtilities(), minUtility)) {
+            counters.prune(PruneRule.REMAINING_UTILITY);
+            return PRUNED;
+        }
+        // Support only decreases with extensions; excluded items are only present when
+        // the lists were not built from constrainedDataset (incremental / window mining)
+        if (missing != null && (constraints.supportTooLow(X.getExpectedSupport())
+                || constraints.isExcluded(X.getItemId()))) {
+            counters.prune(PruneRule.CONSTRAINT);
+            return PRUNED;
+        }
+
+        // Closure: X is closed unless some item occurs with probability 1 wherever X does
+        int[] closure = isClosureActive() ? closureOf(X) : null;
+        if (closure != null && closure.length > 0) {
+            return closure; // saved (as X U closure) by jumpToClosure
+        }
+
+        // Check if this pattern itself is a High Utility Itemset
+        if (MathUtils.greaterThanOrEqual(X.getSumIutils(), minUtility)
+                && (missing == null || coversRequired(missing, X.getItemId()))) {
+            if (closure != null) {
+                saveClosedPattern(prefix.items(), prefix.size(), X.getSumIutils(), X.getExpectedSupport());
+            } else {
+                // Generic method handles Closed check & Top-K logic
+                savePattern(prefix.items(), prefix.size(), X.getSumIutils(), X.getExpectedSupport());
             }
+        }
+        return closure;
+    }
 
-            // 2. Try to extend this pattern
-            if (MathUtils.greaterThanOrEqual(X.getSumUtilities(), minUtility)) {
-                List<UtilityList> nextULs = new ArrayList<>();
-                
-                for (int j = i + 1; j < uls.size(); j++) {
-                    UtilityList Y = uls.get(j);
-                    
-                    // Construct Z = X U Y
-                    UtilityList Z = construct(X, Y, prefixUL);
-                    
-                    // Pruning on Child (Z)
-                    if (Z != null && MathUtils.greaterThanOrEqual(Z.getSumUtilities(), minUtility)) {
-                        nextULs.add(Z);
-                    }
+    /**
+     * Mines the extensions of Prefix U X, X = uls[i] on top of the PrefixStack, after evaluate has accepted it.
+     */
+    private void expand(List<UtilityList> uls, int i, int[] closure, UtilityList prefixUL, int[] missing) {
+        if (closure != null && closure.length > 0) {
+            jumpToClosure(uls, i, closure, prefixUL, missing);
+            return;
+        }
+        UtilityList X = uls.get(i);
+
+        if (missing != null && !canExtend(missing, X.getItemId(), prefix.size())) {
+            counters.prune(PruneRule.CONSTRAINT);
+            return;
+        }
+
+        // Try to extend this pattern
+        if (MathUtils.greaterThanOrEqual(X.getSumUtilities(), minUtility)) {
+            List<UtilityList> nextULs = new ArrayList<>();
+
+            for (int j = i + 1; j < uls.size(); j++) {
+                if (isStopRequested()) {
+                    return;
                 }
-                
-                // Recurse
-                if (!nextULs.isEmpty()) {
-                    search(nextULs, newPattern, X);
+                UtilityList Y = uls.get(j);
+
+                // Construct Z = X U Y
+                StructureBuiltEvent built = StructureBuiltEvent.start();
+                UtilityList Z = construct(X, Y, prefixUL);
+                built.finish(getClass().getSimpleName(), StructureBuiltEvent.UTILITY_LIST,
+                             prefix.size() + 1, Z == null ? 0 : Z.getElements().size());
+                counters.candidate();
+
+                // Pruning on Child (Z); Z's own bound is applied when Z is evaluated
+                if (Z != null && MathUtils.greaterThanOrEqual(partnerBound(X, Z), minUtility)
+                        && (missing == null || !constraints.supportTooLow(Z.getExpectedSupport()))) {
+                    nextULs.add(Z);
+                } else {
+                    counters.prune(PruneRule.REMAINING_UTILITY);
+                }
+            }
+
+            // Recurse
+            if (!nextULs.isEmpty()) {
+                spillPendingIfNearBudget();
+                search(nextULs, X);
+            }
+        }
+    }
+
+    // Closure of the itemset on the PrefixStack, X its utility list
+    private int[] closureOf(UtilityList X) {
+        List<Element> elements = X.getElements();
+        int[] closure = closureCandidates(elements.get(0).getTid(), prefix.items(), prefix.size());
+        for (int e = 1; e < elements.size() && closure.length > 0; e++) {
+            closure = retainCertain(closure, elements.get(e).getTid());
+        }
+        return closure;
+    }
+
+    /**
+     * X = uls[i] is not closed: the closure items occur with probability 1 in all its transactions.
+     * If they are all later candidates, every closed itemset below X contains them, so the branch
+     * is mined from X U closure directly (saving X U closure, never X). Otherwise none of X's
+     * extensions is closed, and the branch is skipped.
+     *
+     * The closure items add their raw utility to every element and leave the probabilities
+     * unchanged, so the lists below X U closure are the lists below X shifted by that utility.
+     * Their remaining utility still counts closure items ranked after the extension item,
+     * which only loosens the bound.
+     */
+    private void jumpToClosure(List<UtilityList> uls, int i, int[] closure, UtilityList prefixUL, int[] missing) {
+        UtilityList X = uls.get(i);
+        boolean[] inClosure = new boolean[uls.size()];
+        int found = 0;
+        for (int j = i + 1; j < uls.size(); j++) {
+            if (Arrays.binarySearch(closure, uls.get(j).getItemId()) >= 0) {
+                inClosure[j] = true;
+                found++;
+            }
+        }
+        if (found < closure.length) {
+            counters.prune(PruneRule.CLOSURE);
+            return;
+        }
+
+        // Raw utility of the closure items in each transaction of X (same tids as X)
+        List<Element> xElements = X.getElements();
+        double[] shift = new double[xElements.size()];
+        for (int j = i + 1; j < uls.size(); j++) {
+            if (inClosure[j]) {
+                List<Element> zElements = construct(X, uls.get(j), prefixUL).getElements();
+                for (int e = 0; e < shift.length; e++) {
+                    shift[e] += zElements.get(e).getSumUtility() - xElements.get(e).getSumUtility();
                 }
             }
         }
+        UtilityList closedUL = shift(X, xElements, shift);
+
+        prefix.push(closure);
+        int[] stillMissing = missing == null ? null : without(missing, closure);
+
+        if (MathUtils.greaterThanOrEqual(closedUL.getSumIutils(), minUtility)
+                && (stillMissing == null || coversRequired(stillMissing, X.getItemId()))) {
+            saveClosedPattern(prefix.items(), prefix.size(), closedUL.getSumIutils(), X.getExpectedSupport());
+        }
+        if (stillMissing != null && !canExtend(stillMissing, X.getItemId(), prefix.size())) {
+            counters.prune(PruneRule.CONSTRAINT);
+        } else {
+            List<UtilityList> nextULs = new ArrayList<>();
+            for (int j = i + 1; j < uls.size() && !isStopRequested(); j++) {
+                if (inClosure[j]) {
+                    continue;
+                }
+                StructureBuiltEvent built = StructureBuiltEvent.start();
+                UtilityList Z = construct(X, uls.get(j), prefixUL);
+                built.finish(getClass().getSimpleName(), StructureBuiltEvent.UTILITY_LIST,
+                             prefix.size() + 1, Z == null ? 0 : Z.getElements().size());
+                counters.candidate();
+
+                UtilityList shifted = Z == null ? null : shift(Z, xElements, shift);
+                if (shifted != null && MathUtils.greaterThanOrEqual(partnerBound(closedUL, shifted), minUtility)
+                        && (missing == null || !constraints.supportTooLow(shifted.getExpectedSupport()))) {
+                    nextULs.add(shifted);
+                } else {
+                    counters.prune(PruneRule.REMAINING_UTILITY);
+                }
+            }
+            if (!nextULs.isEmpty()) {
+                spillPendingIfNearBudget();
+                search(nextULs, closedUL);
+            }
+        }
+        prefix.pop(closure.length);
+    }
+
+    // Adds shift[e] (indexed by the elements of X) to the utility of each element of ul (tids within X's)
+    private static UtilityList shift(UtilityList ul, List<Element> xElements, double[] shift) {
+        UtilityList result = new UtilityList(ul.getItemId());
+        int e = 0;
+        for (Element element : ul.getElements()) {
+            while (xElements.get(e).getTid() < element.getTid()) {
+                e++;
+            }
+            result.addElement(new Element(element.getTid(), element.getSumUtility() + shift[e],
+                                          element.getProdProbability(), element.getRutils()));
+        }
+        return result;
+    }
+
+    /**
+     * Upper bound of every itemset of X's branch that contains Z's item: X's utility and
+     * remaining utility over Z's transactions. Z's own bound only covers Z's extensions,
+     * but Z is also joined with the lists of X's other extensions, so it is kept in the
+     * list as long as this bound holds.
+     */
+    private static double partnerBound(UtilityList X, UtilityList Z) {
+        List<Element> xElements = X.getElements();
+        double bound = 0;
+        int e = 0;
+        for (Element element : Z.getElements()) {
+            while (xElements.get(e).getTid() < element.getTid()) {
+                e++;
+            }
+            bound += xElements.get(e).getExpectedUtility() + xElements.get(e).getRutils();
+        }
+        return bound;
+    }
+
+    private static int[] without(int[] items, int[] removed) {
+        return Arrays.stream(items).filter(item -> Arrays.binarySearch(removed, item) < 0).toArray();
+    }
+
+    private static boolean containsAllItems(List<UtilityList> uls, int[] items) {
+        Set<Integer> present = new HashSet<>();
+        for (UtilityList ul : uls) {
+            present.add(ul.getItemId());
+        }
+        for (int item : items) {
+            if (!present.contains(item)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Prefix U {itemX} holds every required item
+    private static boolean coversRequired(int[] missing, int itemX) {
+        return missing.length == 0 || (missing.length == 1 && missing[0] == itemX);
+    }
+
+    /**
+     * Whether the extensions of Prefix U {itemX} can still qualify: below the length limit,
+     * and every missing required item ranked after itemX (extensions only add later ranks).
+     */
+    private boolean canExtend(int[] missing, int itemX, int length) {
+        if (length >= constraints.getMaxLength()) {
+            return false;
+        }
+        int rankX = mapItemToRank.get(itemX);
+        for (int item : missing) {
+            if (item != itemX && mapItemToRank.get(item) < rankX) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
      * Constructs the Utility List for Z = X U Y.
      * Formula: IUtil(Z) = IUtil(X) + IUtil(Y) - IUtil(Prefix)
      */
-    private UtilityList construct(UtilityList ul1, UtilityList ul2, UtilityList prefixUL) {
+    UtilityList construct(UtilityList ul1, UtilityList ul2, UtilityList prefixUL) {
         UtilityList result = new UtilityList(ul2.getItemId());
         
         List<Element> list1 = ul1.getElements();
@@ -187,6 +535,7 @@ public class UTKO_Miner extends MiningAlgorithm {
             }
         }
         
+        counters.elements(result.getElements().size());
         return result.getElements().isEmpty() ? null : result;
     }
 }
\ No newline at end of file
@@ -1,14 +1,24 @@
 package com.project.algorithms.utko;
 
+import com.project.utils.SpillFile;
+
 import java.util.ArrayList;
 import java.util.List;
 
 public class UtilityList {
+    private static final int ELEMENT_BYTES = Integer.BYTES + 3 * Double.BYTES;
+
     private final int itemId;
-    private final List<Element> elements;
+    private final ArrayList<Element> elements;
     private double sumExpectedUtility; // Sum of EU(X, T) across transactions
     private double sumRutils;          // Sum of remaining utility bounds
     private double sumExpectedSupport; // Sum of product probabilities (Expected Support)
+    private int lastTid = -1;
+
+    // Copy of the elements in a spill file; while spilled, only the sums stay in memory
+    private SpillFile spillFile;
+    private long spillOffset;
+    private boolean spilled;
 
     public UtilityList(int itemId) {
         this.itemId = itemId;
@@ -19,27 +29,76 @@ public class UtilityList {
     }
 
     public void addElement(Element element) {
+        load();
+        spillFile = null; // The copy no longer matches
         elements.add(element);
         sumExpectedUtility += element.getExpectedUtility();
         sumRutils += element.getRutils();
         sumExpectedSupport += element.getProdProbability();
+        lastTid = element.getTid();
     }
 
     public int getItemId() { return itemId; }
     public double getSumIutils() { return sumExpectedUtility; }
     public double getSumRutils() { return sumRutils; }
-    
+
     // Total Potential Utility (Upper Bound) used for pruning
     public double getSumUtilities() {
         return sumExpectedUtility + sumRutils;
     }
-    
+
     // Expected Support is the sum of probabilities across transactions
     public double getExpectedSupport() {
         return sumExpectedSupport;
     }
 
+    /** Tid of the last element (elements are tid-ordered), or -1 if empty */
+    public int getLastTid() {
+        return lastTid;
+    }
+
+    /** The elements, read back first if they were spilled */
     public List<Element> getElements() {
+        load();
         return elements;
     }
-}
\ No newline at end of file
+
+    /** Bytes saveTo would write (0 when a current copy is already on disk) */
+    long unsavedBytes() {
+        return spillFile != null ? 0 : Integer.BYTES + (long) elements.size() * ELEMENT_BYTES;
+    }
+
+    /** Writes the elements at the position of file */
+    void saveTo(SpillFile file) {
+        spillFile = file;
+        spillOffset = file.position();
+        file.putInt(elements.size());
+        for (Element element : elements) {
+            file.putInt(element.getTid());
+            file.putDouble(element.getSumUtility());
+            file.putDouble(element.getProdProbability());
+            file.putDouble(element.getRutils());
+        }
+    }
+
+    /** Releases the elements; they must have been saved (the list object itself is kept) */
+    void drop() {
+        elements.clear();
+        elements.trimToSize();
+        spilled = true;
+    }
+
+    private void load() {
+        if (!spilled) {
+            return;
+        }
+        spillFile.position(spillOffset);
+        int count = spillFile.getInt();
+        elements.ensureCapacity(count);
+        for (int e = 0; e < count; e++) {
+            elements.add(new Element(spillFile.getInt(), spillFile.getDouble(),
+                                     spillFile.getDouble(), spillFile.getDouble()));
+        }
+        spilled = false;
+    }
+}
@@ -0,0 +1,49 @@
+package com.project.algorithms.utko;
+
+import com.project.algorithms.base.Spillable;
+import com.project.utils.SpillFile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The Utility Lists of one search level, spilled together into one file.
+ * A spilled list reads its elements back on its next getElements.
+ */
+class UtilityListLevel implements Spillable {
+    private final List<UtilityList> lists;
+    private final List<SpillFile> files = new ArrayList<>();
+
+    UtilityListLevel(List<UtilityList> lists) {
+        this.lists = lists;
+    }
+
+    @Override
+    public long spill() {
+        long bytes = 0;
+        for (UtilityList ul : lists) {
+            bytes += ul.unsavedBytes();
+        }
+        if (bytes > 0) {
+            SpillFile file = SpillFile.create(bytes);
+            files.add(file);
+            for (UtilityList ul : lists) {
+                if (ul.unsavedBytes() > 0) {
+                    ul.saveTo(file);
+                }
+            }
+        }
+        for (UtilityList ul : lists) {
+            ul.drop();
+        }
+        return bytes;
+    }
+
+    @Override
+    public void release() {
+        for (SpillFile file : files) {
+            file.delete();
+        }
+        files.clear();
+    }
+}
@@ -1,72 +1,209 @@
 package com.project.algorithms.utku;
 
 import com.project.model.Item;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
+/**
+ * Array-backed UP-Tree.
+ * Nodes are int handles into parallel primitive arrays instead of individual objects,
+ * which keeps a node at ~40 bytes and makes building many conditional trees cheap.
+ * Node 0 is the root; NONE (-1) marks a missing parent/child/sibling/link.
+ */
 public class UPTree {
-    private final UPNode root;
-    
-    // Header table to access the first node of each item
-    private final Map<Integer, UPNode> headerTable; 
-    
-    // Helper map to access the last node of each item (for fast linking)
-    private final Map<Integer, UPNode> lastNodeLink; 
+    public static final int ROOT = 0;
+    public static final int NONE = -1;
+
+    /** Nodes with at least this many children get their child lookup hashed */
+    private static final int HASHED_FANOUT = 8;
+    private static final int INITIAL_CAPACITY = 64;
+
+    // Node storage (parallel arrays indexed by node handle)
+    private int[] itemIds;
+    private int[] parents;
+    private int[] firstChildren;
+    private int[] nextSiblings;
+    private int[] nodeLinks;
+    private int[] childCounts;
+    private double[] nodeUtilities;     // Accumulated Expected Utility
+    private double[] expectedSupports;  // Accumulated Expected Support (Probability sum)
+    private int nodeCount;
+
+    // Header table: item -> slot, slot -> first/last node of the item's link chain
+    private final LongIntHashMap headerSlots;
+    private int[] headerItems;
+    private int[] headerFirst;
+    private int[] headerLast;
+    private int headerCount;
+
+    // Child index for high-fanout nodes: (parent, item) -> child
+    private final LongIntHashMap childIndex;
 
     public UPTree() {
-        this.root = new UPNode(-1, 0, 0);
-        this.headerTable = new HashMap<>();
-        this.lastNodeLink = new HashMap<>();
+        this(INITIAL_CAPACITY);
+    }
+
+    public UPTree(int expectedNodes) {
+        int capacity = Math.max(INITIAL_CAPACITY, expectedNodes + 1);
+        this.itemIds = new int[capacity];
+        this.parents = new int[capacity];
+        this.firstChildren = new int[capacity];
+        this.nextSiblings = new int[capacity];
+        this.nodeLinks = new int[capacity];
+        this.childCounts = new int[capacity];
+        this.nodeUtilities = new double[capacity];
+        this.expectedSupports = new double[capacity];
+
+        this.headerSlots = new LongIntHashMap(16);
+        this.headerItems = new int[16];
+        this.headerFirst = new int[16];
+        this.headerLast = new int[16];
+        this.childIndex = new LongIntHashMap(16);
+
+        // Root node
+        itemIds[ROOT] = -1;
+        parents[ROOT] = NONE;
+        firstChildren[ROOT] = NONE;
+        nextSiblings[ROOT] = NONE;
+        nodeLinks[ROOT] = NONE;
+        nodeCount = 1;
     }
 
     /**
      * Inserts a sorted transaction into the tree.
      */
     public void addTransaction(List<Item> sortedItems) {
-        UPNode currentNode = root;
+        int currentNode = ROOT;
         double currentPrefixProb = 1.0;
 
         for (Item item : sortedItems) {
-            int itemId = item.getItemId();
-            double expectedUtil = item.getExpectedUtility();
-            double itemProb = item.getProbability();
-            
-            double nodeProb = currentPrefixProb * itemProb;
-
-            UPNode child = currentNode.getChild(itemId);
-
-            if (child == null) {
-                // Create new node
-                child = new UPNode(itemId, expectedUtil, nodeProb);
-                currentNode.addChild(child);
-
-                // Update Header Table & Node Links
-                updateHeaderLink(child);
-            } else {
-                // Node exists -> Accumulate utility and probability
-                child.increaseUtility(expectedUtil, nodeProb);
+            double nodeProb = currentPrefixProb * item.getProbability();
+            currentNode = insertChild(currentNode, item.getItemId(), item.getExpectedUtility(), nodeProb);
+            currentPrefixProb = nodeProb; // Update prefix probability for next item
+        }
+    }
+
+    /**
+     * Adds utility/probability to the child of parent holding itemId, creating it if needed.
+     * @return The handle of the child node.
+     */
+    public int insertChild(int parent, int itemId, double utility, double prob) {
+        int child = getChild(parent, itemId);
+
+        if (child == NONE) {
+            // Create new node
+            child = newNode(parent, itemId);
+            nodeUtilities[child] = utility;
+            expectedSupports[child] = prob;
+
+            // Update Header Table & Node Links
+            updateHeaderLink(child);
+        } else {
+            // Node exists -> Accumulate utility and probability
+            nodeUtilities[child] += utility;
+            expectedSupports[child] += prob;
+        }
+        return child;
+    }
+
+    public int getChild(int parent, int itemId) {
+        if (childCounts[parent] >= HASHED_FANOUT) {
+            return childIndex.get(edgeKey(parent, itemId));
+        }
+        // Low fanout: scanning the sibling chain is cheaper than hashing
+        for (int child = firstChildren[parent]; child != NONE; child = nextSiblings[child]) {
+            if (itemIds[child] == itemId) {
+                return child;
             }
+        }
+        return NONE;
+    }
 
-            currentNode = child; // Move down
-            currentPrefixProb = nodeProb; // Update prefix probability for next item
+    private int newNode(int parent, int itemId) {
+        if (nodeCount == itemIds.length) {
+            growNodes();
         }
+        int node = nodeCount++;
+        itemIds[node] = itemId;
+        parents[node] = parent;
+        firstChildren[node] = NONE;
+        nodeLinks[node] = NONE;
+        childCounts[node] = 0;
+
+        // Prepend to the parent's child list
+        nextSiblings[node] = firstChildren[parent];
+        firstChildren[parent] = node;
+        childCounts[parent]++;
+
+        if (childCounts[parent] == HASHED_FANOUT) {
+            // Fanout just crossed the threshold: index all existing children
+            for (int child = firstChildren[parent]; child != NONE; child = nextSiblings[child]) {
+                childIndex.put(edgeKey(parent, itemIds[child]), child);
+            }
+        } else if (childCounts[parent] > HASHED_FANOUT) {
+            childIndex.put(edgeKey(parent, itemId), node);
+        }
+        return node;
     }
 
-    private void updateHeaderLink(UPNode newNode) {
-        int itemId = newNode.getItemId();
-        if (headerTable.containsKey(itemId)) {
+    private void updateHeaderLink(int newNode) {
+        int itemId = itemIds[newNode];
+        int slot = headerSlots.get(itemId);
+        if (slot != LongIntHashMap.MISSING) {
             // Append to the tail of the link list
-            UPNode last = lastNodeLink.get(itemId);
-            last.setNodeLink(newNode);
-            lastNodeLink.put(itemId, newNode);
+            nodeLinks[headerLast[slot]] = newNode;
+            headerLast[slot] = newNode;
         } else {
             // First node of this item
-            headerTable.put(itemId, newNode);
-            lastNodeLink.put(itemId, newNode);
+            if (headerCount == headerItems.length) {
+                int newLength = headerCount * 2;
+                headerItems = Arrays.copyOf(headerItems, newLength);
+                headerFirst = Arrays.copyOf(headerFirst, newLength);
+                headerLast = Arrays.copyOf(headerLast, newLength);
+            }
+            slot = headerCount++;
+            headerSlots.put(itemId, slot);
+            headerItems[slot] = itemId;
+            headerFirst[slot] = newNode;
+            headerLast[slot] = newNode;
         }
     }
 
-    public UPNode getRoot() { return root; }
-    public Map<Integer, UPNode> getHeaderTable() { return headerTable; }
-}
\ No newline at end of file
+    private void growNodes() {
+        int newLength = itemIds.length * 2;
+        itemIds = Arrays.copyOf(itemIds, newLength);
+        parents = Arrays.copyOf(parents, newLength);
+        firstChildren = Arrays.copyOf(firstChildren, newLength);
+        nextSiblings = Arrays.copyOf(nextSiblings, newLength);
+        nodeLinks = Arrays.copyOf(nodeLinks, newLength);
+        childCounts = Arrays.copyOf(childCounts, newLength);
+        nodeUtilities = Arrays.copyOf(nodeUtilities, newLength);
+        expectedSupports = Arrays.copyOf(expectedSupports, newLength);
+    }
+
+    private static long edgeKey(int parent, int itemId) {
+        return ((long) parent << 32) | (itemId & 0xFFFFFFFFL);
+    }
+
+    /** Items present in the header table, in first-insertion order. */
+    public int[] getHeaderItems() {
+        return Arrays.copyOf(headerItems, headerCount);
+    }
+
+    /** First node in the link chain of itemId, or NONE if the item is absent. */
+    public int getHeadNode(int itemId) {
+        int slot = headerSlots.get(itemId);
+        return slot == LongIntHashMap.MISSING ? NONE : headerFirst[slot];
+    }
+
+    public boolean isEmpty() { return firstChildren[ROOT] == NONE; }
+    public int getNodeCount() { return nodeCount; }
+
+    public int getItemId(int node) { return itemIds[node]; }
+    public int getParent(int node) { return parents[node]; }
+    public int getNodeLink(int node) { return nodeLinks[node]; }
+    public int getFirstChild(int node) { return firstChildren[node]; }
+    public int getNextSibling(int node) { return nextSiblings[node]; }
+    public double getNodeUtility(int node) { return nodeUtilities[node]; }
+    public double getExpectedSupport(int node) { return expectedSupports[node]; }
+}
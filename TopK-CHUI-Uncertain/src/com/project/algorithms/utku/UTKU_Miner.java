@@ -1,30 +1,131 @@
 package com.project.algorithms.utku;
 
 import com.project.algorithms.base.MiningAlgorithm;
+import com.project.algorithms.base.SearchCounters.Phase;
+import com.project.algorithms.base.SearchCounters.PruneRule;
+import com.project.algorithms.base.SearchStrategy;
 import com.project.algorithms.base.Stats;
+import com.project.algorithms.base.jfr.StructureBuiltEvent;
 import com.project.model.Dataset;
 import com.project.model.Item;
-import com.project.model.Itemset;
 import com.project.model.Transaction;
+import com.project.model.VerticalIndex;
 import com.project.utils.MathUtils;
+import com.project.utils.UtilityKernels;
 
 import java.util.*;
 
 public class UTKU_Miner extends MiningAlgorithm {
 
+    /** Global tree cached on the Dataset for warm starts (read-only once built) */
+    private static class WarmState {
+        final Map<Integer, Double> twu;
+        final UPTree tree;
+
+        WarmState(Map<Integer, Double> twu, UPTree tree) {
+            this.twu = twu;
+            this.tree = tree;
+        }
+    }
+
     private Dataset database; // Reference to DB for verify phase
 
+    /** Verify candidates through the Dataset's TID-list index instead of a full scan */
+    private boolean useVerticalIndex = true;
+    private VerticalIndex index;
+
+    // Reusable intersection buffers (surviving TIDs with partial sum/product)
+    private int[] bufTids = new int[0];
+    private int[] bufPos = new int[0];
+    private double[] bufSumUtil = new double[0];
+    private double[] bufProdProb = new double[0];
+    private int[] orderBuf = new int[16];
+
+    private static final UtilityKernels KERNELS = UtilityKernels.INSTANCE;
+
+    // Reusable conditional pattern base buffers (one path at a time, leaf -> root)
+    private int[] pathBuf = new int[16];
+    private double[] localUtility;   // itemId -> local path utility (DLU)
+    private int[] touchedItems = new int[16];
+
+    public void setUseVerticalIndex(boolean useVerticalIndex) {
+        this.useVerticalIndex = useVerticalIndex;
+    }
+
+    /**
+     * Runs each K separately: the conditional trees are pruned with K's own threshold,
+     * so the heuristic result at a smaller K is not a prefix of the result at the largest K.
+     * @param ks The K values (duplicates ignored).
+     * @return Stats per K, in ascending order of K.
+     */
+    @Override
+    public SortedMap<Integer, Stats> runAlgorithm(Dataset db, int[] ks) {
+        if (ks.length == 0) {
+            throw new IllegalArgumentException("At least one K is required");
+        }
+        SortedMap<Integer, Stats> results = new TreeMap<>();
+        for (int k : ks) {
+            if (!results.containsKey(k)) {
+                results.put(k, runAlgorithm(db, k));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * The heuristic result depends on the exploration order (best-first verifies a
+     * different set of candidates), so BEST_FIRST is part of the cache key here.
+     */
+    @Override
+    public String getParameters() {
+        String parameters = super.getParameters();
+        if (searchStrategy == SearchStrategy.BEST_FIRST) {
+            parameters += parameters.isEmpty() ? "strategy=BEST_FIRST" : ";strategy=BEST_FIRST";
+        }
+        return parameters;
+    }
+
     @Override
     public Stats runAlgorithm(Dataset db, int k) {
-        this.database = db; 
         long start = System.currentTimeMillis();
         
         setup(k);
+        try {
+            db = constrainedDataset(db);
+            this.database = db; 
+            this.index = useVerticalIndex ? db.getVerticalIndex() : null;
+            prepareClosure(db);
+            UPTree tree = warmStart ? warmGlobalTree(db) : buildGlobalTree(db);
+
+            int maxItemId = 0;
+            for (int itemId : mapItemToTWU.keySet()) {
+                maxItemId = Math.max(maxItemId, itemId);
+            }
+            this.localUtility = new double[maxItemId + 1];
+
+            // Step 3: Recursive Mining
+            // Start with an empty prefix
+            long phaseStart = counters.startPhase();
+            mine(tree);
+            counters.endPhase(Phase.SEARCH, phaseStart);
+
+            return createStats("U-TKU", start);
+        } finally {
+            teardown();
+        }
+    }
 
+    /**
+     * Steps 1-2: Computes the global ETWUs and builds the global UP-Tree.
+     */
+    private UPTree buildGlobalTree(Dataset db) {
         // Step 1: Calculate Global ETWU
+        long phaseStart = counters.startPhase();
         this.mapItemToTWU = db.calculateTWUs();
+        counters.endPhase(Phase.TWU, phaseStart);
 
         // Step 2: Build Global UP-Tree
+        phaseStart = counters.startPhase();
         UPTree tree = new UPTree();
         
         for (Transaction t : db.getTransactions()) {
@@ -45,20 +146,31 @@ public class UTKU_Miner extends MiningAlgorithm {
                 tree.addTransaction(sortedItems);
             }
         }
+        counters.elements(tree.getNodeCount() - 1);
+        counters.endPhase(Phase.BUILD, phaseStart);
+        return tree;
+    }
 
-        // Step 3: Recursive Mining
-        // Start with empty int[] prefix
-        mine(tree, new int[0]);
-
-        return createStats("U-TKU", start);
+    private UPTree warmGlobalTree(Dataset db) {
+        WarmState state = db.getDerived("utku.globalTree", d -> {
+            UTKU_Miner builder = new UTKU_Miner();
+            UPTree tree = builder.buildGlobalTree(d);
+            return new WarmState(builder.mapItemToTWU, tree);
+        });
+        this.mapItemToTWU = state.twu;
+        return state.tree;
     }
 
     /**
      * Recursive mining function using int[] for memory efficiency.
      */
-    private void mine(UPTree tree, int[] prefix) {
+    private void mine(UPTree tree) {
         // 1. Traverse Header Table Bottom-Up
-        List<Integer> items = new ArrayList<>(tree.getHeaderTable().keySet());
+        int[] headerItems = tree.getHeaderItems();
+        List<Integer> items = new ArrayList<>(headerItems.length);
+        for (int itemId : headerItems) {
+            items.add(itemId);
+        }
         
         // Sort Ascending by ETWU
         items.sort((a, b) -> Double.compare(
@@ -66,93 +178,351 @@ public class UTKU_Miner extends MiningAlgorithm {
             mapItemToTWU.get(b)
         ));
 
-        for (Integer itemId : items) {
-            // Create new pattern: Prefix + Current Item
-            int[] newPattern = new int[prefix.length + 1];
-            System.arraycopy(prefix, 0, newPattern, 0, prefix.length);
-            newPattern[prefix.length] = itemId;
-
-            // Estimate Utility
-            double estimatedUtility = calculateEstimatedUtility(tree, itemId);
-
-            // Pruning
-            if (MathUtils.greaterThanOrEqual(estimatedUtility, minUtility)) {
-                
-                // Verify with original database (Phase 2)
-                verifyAndAddResult(newPattern);
-
-                // Build Conditional Tree
-                UPTree conditionalTree = buildConditionalTree(tree, itemId);
-
-                // Recursion
-                if (conditionalTree.getRoot().getChildren().size() > 0) {
-                    mine(conditionalTree, newPattern);
+        // Constraints: every result below this prefix extends it with header items
+        int[] missing = null;
+        if (constraints != null) {
+            missing = constraints.missingFrom(prefix.items(), prefix.size());
+            for (int item : missing) {
+                if (!items.contains(item)) {
+                    counters.prune(PruneRule.CONSTRAINT);
+                    return;
                 }
             }
         }
+
+        if (searchStrategy == SearchStrategy.BEST_FIRST) {
+            mineBestFirst(tree, items, missing);
+            return;
+        }
+
+        for (Integer itemId : items) {
+            if (isStopRequested()) {
+                return;
+            }
+            // New pattern: Prefix + Current Item
+            prefix.push(itemId);
+            if (evaluate(itemId, calculateEstimatedUtility(tree, itemId), missing)) {
+                expand(tree, itemId, missing);
+            }
+            prefix.pop();
+        }
+    }
+
+    /**
+     * Best-first order: every header item is verified first, then the conditional trees
+     * are mined from the highest estimated utility down. A conditional tree holds the
+     * item's ancestors in TWU order regardless of the order the items are visited in.
+     */
+    private void mineBestFirst(UPTree tree, List<Integer> items, int[] missing) {
+        double[] estimates = new double[items.size()];
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (isStopRequested()) {
+                return;
+            }
+            int itemId = items.get(i);
+            estimates[i] = calculateEstimatedUtility(tree, itemId);
+            prefix.push(itemId);
+            if (evaluate(itemId, estimates[i], missing)) {
+                order.add(i);
+            }
+            prefix.pop();
+        }
+
+        order.sort((a, b) -> Double.compare(estimates[b], estimates[a]));
+        for (int i : order) {
+            if (isStopRequested()) {
+                return;
+            }
+            // minUtility may have risen since the item was verified
+            if (MathUtils.lessThan(estimates[i], minUtility)) {
+                counters.prune(PruneRule.ESTIMATED_UTILITY);
+                continue;
+            }
+            prefix.push(items.get(i));
+            expand(tree, items.get(i), missing);
+            prefix.pop();
+        }
+    }
+
+    /**
+     * Visits Prefix U {itemId} (on the PrefixStack): verifies it against the database when its estimate reaches minUtility.
+     * @return Whether its conditional tree can still hold results.
+     */
+    private boolean evaluate(int itemId, double estimatedUtility, int[] missing) {
+        counters.visitNode();
+
+        // Pruning
+        if (MathUtils.lessThan(estimatedUtility, minUtility)) {
+            counters.prune(PruneRule.ESTIMATED_UTILITY);
+            return false;
+        }
+
+        // Verify with original database (Phase 2), only if the pattern can qualify
+        if (missing == null || coversRequired(missing, itemId)) {
+            counters.candidate();
+            long verifyStart = counters.startPhase();
+            double expectedSupport = verifyAndAddResult();
+            counters.endPhase(Phase.VERIFY, verifyStart);
+
+            // Support only decreases with extensions
+            if (missing != null && constraints.supportTooLow(expectedSupport)) {
+                counters.prune(PruneRule.CONSTRAINT);
+                return false;
+            }
+        }
+        return true;
     }
 
+    /**
+     * Mines the conditional tree of itemId (on top of the PrefixStack) after evaluate has accepted it.
+     */
+    private void expand(UPTree tree, int itemId, int[] missing) {
+        if (missing != null && !canExtend(missing, itemId, prefix.size())) {
+            counters.prune(PruneRule.CONSTRAINT);
+            return;
+        }
+
+        // Build Conditional Tree
+        StructureBuiltEvent built = StructureBuiltEvent.start();
+        UPTree conditionalTree = buildConditionalTree(tree, itemId);
+        built.finish(getClass().getSimpleName(), StructureBuiltEvent.CONDITIONAL_TREE,
+                     prefix.size(), conditionalTree.getNodeCount() - 1);
+        counters.elements(conditionalTree.getNodeCount() - 1);
+
+        // Recursion
+        if (!conditionalTree.isEmpty()) {
+            mine(conditionalTree);
+        }
+    }
+
+    /**
+     * Builds the conditional UP-Tree of itemId from its node links.
+     * Paths are collected into a reusable primitive buffer and inserted in reverse,
+     * so no Item or List objects are created per path.
+     * DLU: ancestors whose local path utility is below minUtility are discarded,
+     * as they would be pruned in every deeper tree as well.
+     */
     private UPTree buildConditionalTree(UPTree tree, int itemId) {
+        // Pass 1: Local path utility of every ancestor item
+        int touchedCount = 0;
+        for (int node = tree.getHeadNode(itemId); node != UPTree.NONE; node = tree.getNodeLink(node)) {
+            double pathVal = tree.getNodeUtility(node);
+            for (int parent = tree.getParent(node); parent != UPTree.ROOT; parent = tree.getParent(parent)) {
+                int ancestor = tree.getItemId(parent);
+                if (localUtility[ancestor] == 0) {
+                    if (touchedCount == touchedItems.length) {
+                        touchedItems = Arrays.copyOf(touchedItems, touchedCount * 2);
+                    }
+                    touchedItems[touchedCount++] = ancestor;
+                }
+                localUtility[ancestor] += pathVal;
+            }
+        }
+
+        // Pass 2: Insert the reorganized (promising-only) paths
         UPTree condTree = new UPTree();
-        UPNode currentNode = tree.getHeaderTable().get(itemId);
-        
-        while (currentNode != null) {
-            List<Item> path = new ArrayList<>();
-            UPNode parent = currentNode.getParent();
-            
-            while (parent.getItemId() != -1) { 
-                // Path value logic specific to UP-Tree (simplified for U-TKU)
-                double pathVal = currentNode.getNodeUtility(); 
-                
-                // Note: creating temporary Item objects here is necessary for the tree API,
-                // but acceptable as these are short-lived.
-                path.add(0, new Item(parent.getItemId(), pathVal, 1.0)); 
-                
-                parent = parent.getParent();
+        for (int node = tree.getHeadNode(itemId); node != UPTree.NONE; node = tree.getNodeLink(node)) {
+            // Path value logic specific to UP-Tree (simplified for U-TKU)
+            double pathVal = tree.getNodeUtility(node);
+
+            int length = 0;
+            for (int parent = tree.getParent(node); parent != UPTree.ROOT; parent = tree.getParent(parent)) {
+                int ancestor = tree.getItemId(parent);
+                if (MathUtils.greaterThanOrEqual(localUtility[ancestor], minUtility)) {
+                    if (length == pathBuf.length) {
+                        pathBuf = Arrays.copyOf(pathBuf, length * 2);
+                    }
+                    pathBuf[length++] = ancestor;
+                } else {
+                    counters.prune(PruneRule.DLU);
+                }
             }
 
-            if (!path.isEmpty()) {
-                condTree.addTransaction(path);
+            // Buffer holds leaf -> root order: insert from the root side
+            int current = UPTree.ROOT;
+            for (int i = length - 1; i >= 0; i--) {
+                current = condTree.insertChild(current, pathBuf[i], pathVal, 1.0);
             }
+        }
 
-            currentNode = currentNode.getNodeLink();
+        for (int i = 0; i < touchedCount; i++) {
+            localUtility[touchedItems[i]] = 0;
         }
-        
         return condTree;
     }
 
+    // Prefix U {itemId} holds every required item
+    private static boolean coversRequired(int[] missing, int itemId) {
+        return missing.length == 0 || (missing.length == 1 && missing[0] == itemId);
+    }
+
+    /**
+     * Whether the extensions of Prefix U {itemId} can still qualify: below the length limit,
+     * and no missing required item with a lower ETWU (conditional trees only hold ancestors,
+     * which have an ETWU at least that of itemId).
+     */
+    private boolean canExtend(int[] missing, int itemId, int length) {
+        if (length >= constraints.getMaxLength()) {
+            return false;
+        }
+        double twu = mapItemToTWU.get(itemId);
+        for (int item : missing) {
+            if (item != itemId && mapItemToTWU.get(item) < twu) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private double calculateEstimatedUtility(UPTree tree, int itemId) {
         double sum = 0;
-        UPNode node = tree.getHeaderTable().get(itemId);
-        while (node != null) {
-            sum += node.getNodeUtility();
-            node = node.getNodeLink();
+        for (int node = tree.getHeadNode(itemId); node != UPTree.NONE; node = tree.getNodeLink(node)) {
+            sum += tree.getNodeUtility(node);
         }
         return sum;
     }
 
     /**
-     * Updated Verification: Uses int[] and optimized Transaction methods.
+     * Verification Phase: computes the exact expected utility and support of the candidate
+     * on the PrefixStack. Uses the vertical index when available, otherwise scans the whole database.
+     * @return The expected support of the candidate.
      */
-    private void verifyAndAddResult(int[] candidateItems) {
+    private double verifyAndAddResult() {
+        int[] items = prefix.items();
+        int length = prefix.size();
+
         double actualExpectedUtility = 0;
         double expectedSupport = 0;
+        // Closure items (probability 1 in every supporting transaction); null until the first one
+        int[] closure = null;
 
-        for (Transaction t : database.getTransactions()) {
-            // OPTIMIZATION: Use Transaction's internal optimized check
-            if (t.containsAll(candidateItems)) {
-                // OPTIMIZATION: Use Transaction's internal optimized calculation
-                actualExpectedUtility += t.calculateUtilityOf(candidateItems);
-                expectedSupport += t.calculateProbabilityOf(candidateItems);
+        if (index != null) {
+            int survivors = intersectTidLists(items, length);
+            actualExpectedUtility = KERNELS.dot(bufSumUtil, bufProdProb, survivors);
+            expectedSupport = KERNELS.sum(bufProdProb, survivors);
+            if (isClosureActive() && MathUtils.greaterThanOrEqual(actualExpectedUtility, minUtility)) {
+                for (int s = 0; s < survivors && (closure == null || closure.length > 0); s++) {
+                    closure = closure == null ? closureCandidates(bufTids[s], items, length) : retainCertain(closure, bufTids[s]);
+                }
+            }
+        } else {
+            // Transaction lookups need ID-sorted items, while patterns are built in TWU order
+            int[] sortedItems = Arrays.copyOf(items, length);
+            Arrays.sort(sortedItems);
+            List<Transaction> transactions = database.getTransactions();
+            for (int tid = 0; tid < transactions.size(); tid++) {
+                Transaction t = transactions.get(tid);
+                // OPTIMIZATION: Use Transaction's internal optimized check
+                if (t.containsAll(sortedItems)) {
+                    // OPTIMIZATION: Use Transaction's internal optimized calculation
+                    actualExpectedUtility += t.calculateUtilityOf(sortedItems);
+                    expectedSupport += t.calculateProbabilityOf(sortedItems);
+                    if (isClosureActive() && (closure == null || closure.length > 0)) {
+                        closure = closure == null ? closureCandidates(tid, sortedItems, length) : retainCertain(closure, tid);
+                    }
+                }
             }
         }
 
         // Check Top-K condition
         if (MathUtils.greaterThanOrEqual(actualExpectedUtility, minUtility)) {
-            Itemset newItemset = new Itemset(candidateItems, actualExpectedUtility, expectedSupport);
-            
-            // Delegate "Closed" check to the generic parent method
-            savePattern(newItemset); 
+            if (closure == null) {
+                // Delegate "Closed" check to the generic parent method
+                savePattern(items, length, actualExpectedUtility, expectedSupport);
+            } else if (closure.length == 0) {
+                saveClosedPattern(items, length, actualExpectedUtility, expectedSupport);
+            } else {
+                counters.prune(PruneRule.CLOSURE);
+            }
+        }
+        return expectedSupport;
+    }
+
+    /**
+     * Intersects the TID lists of the candidate's items, shortest list first.
+     * Leaves the surviving TIDs with their accumulated utility sum and probability product
+     * in the reusable buffers and returns how many survived.
+     */
+    private int intersectTidLists(int[] items, int length) {
+        // Order items by ascending list length (candidates are short: insertion sort)
+        if (orderBuf.length < length) {
+            orderBuf = new int[Math.max(length, orderBuf.length * 2)];
+        }
+        int[] order = orderBuf;
+        System.arraycopy(items, 0, order, 0, length);
+        for (int i = 1; i < length; i++) {
+            int item = order[i];
+            int len = index.getSupportCount(item);
+            int j = i - 1;
+            while (j >= 0 && index.getSupportCount(order[j]) > len) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = item;
+        }
+
+        // Seed the survivors with the shortest list
+        int[] tids = index.getTids(order[0]);
+        int[] positions = index.getPositions(order[0]);
+        int count = tids.length;
+        ensureBufferCapacity(count);
+        for (int s = 0; s < count; s++) {
+            bufTids[s] = tids[s];
+            bufSumUtil[s] = database.getItemUtility(tids[s], positions[s]);
+            bufProdProb[s] = database.getItemProbability(tids[s], positions[s]);
+        }
+
+        // Narrow down with each remaining list
+        for (int i = 1; i < length && count > 0; i++) {
+            tids = index.getTids(order[i]);
+            positions = index.getPositions(order[i]);
+            // Binary search pays off when the list is much longer than the survivors
+            boolean gallop = tids.length > 8 * count;
+
+            int kept = 0;
+            int p = 0;
+            for (int s = 0; s < count && p < tids.length; s++) {
+                int tid = bufTids[s];
+                if (gallop) {
+                    int found = Arrays.binarySearch(tids, p, tids.length, tid);
+                    if (found < 0) {
+                        p = -found - 1;
+                        continue;
+                    }
+                    p = found;
+                } else {
+                    while (p < tids.length && tids[p] < tid) {
+                        p++;
+                    }
+                    if (p == tids.length || tids[p] != tid) {
+                        continue;
+                    }
+                }
+                bufPos[kept] = positions[p];
+                bufTids[kept] = tid;
+                bufSumUtil[kept] = bufSumUtil[s];
+                bufProdProb[kept] = bufProdProb[s];
+                kept++;
+                p++;
+            }
+
+            // Accumulate the matched item's utility and probability on the survivors
+            for (int s = 0; s < kept; s++) {
+                bufSumUtil[s] += database.getItemUtility(bufTids[s], bufPos[s]);
+                bufProdProb[s] *= database.getItemProbability(bufTids[s], bufPos[s]);
+            }
+            count = kept;
+        }
+        return count;
+    }
+
+    private void ensureBufferCapacity(int size) {
+        if (bufTids.length < size) {
+            bufTids = new int[size];
+            bufPos = new int[size];
+            bufSumUtil = new double[size];
+            bufProdProb = new double[size];
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,168 @@
+package com.project.distributed;
+
+import com.project.algorithms.AlgorithmFactory;
+import com.project.algorithms.base.MiningAlgorithm;
+import com.project.algorithms.base.Stats;
+import com.project.manager.DataLoader;
+import com.project.model.Dataset;
+import com.project.model.Itemset;
+import com.project.model.Transaction;
+import com.project.model.VerticalIndex;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * One partition of a partitioned run: loads its shard, then serves the coordinator
+ * over a localhost socket (see {@link Protocol}).
+ *
+ * Started by {@link PartitionedMiner}: PartitionWorker port workerId shardFile algorithm
+ */
+public class PartitionWorker {
+
+    /** Streamed candidates are flushed at least this often so thresholds can rise early */
+    private static final long FLUSH_INTERVAL_NANOS = 50_000_000L;
+
+    private final int workerId;
+    private final Dataset db;
+    private final String algorithm;
+    private final Writer out;
+    private long lastFlushNanos = System.nanoTime();
+
+    private volatile MiningAlgorithm running;
+
+    private PartitionWorker(int workerId, Dataset db, String algorithm, Writer out) {
+        this.workerId = workerId;
+        this.db = db;
+        this.algorithm = algorithm;
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.parseInt(args[0]);
+        int workerId = Integer.parseInt(args[1]);
+        Dataset db = DataLoader.load(args[2]);
+        String algorithm = args[3];
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), 1 << 16);
+            new PartitionWorker(workerId, db, algorithm, out).serve(in);
+        }
+    }
+
+    private void serve(BufferedReader in) throws IOException {
+        send(Protocol.READY + " " + workerId + " " + db.getTransactions().size(), true);
+
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] cmd = line.split(" ");
+            switch (cmd[0]) {
+                case Protocol.TOPK:
+                    mineTopK(Integer.parseInt(cmd[1]));
+                    break;
+                case Protocol.MINE:
+                    startThresholdMining(Double.parseDouble(cmd[1]));
+                    break;
+                case Protocol.THRESHOLD:
+                    MiningAlgorithm algo = running;
+                    if (algo != null) {
+                        algo.raiseThreshold(Double.parseDouble(cmd[1]));
+                    }
+                    break;
+                case Protocol.EVAL:
+                    evaluate(in, Integer.parseInt(cmd[1]), Integer.parseInt(cmd[2]));
+                    break;
+                case Protocol.QUIT:
+                    return;
+                default:
+                    System.err.println("Worker " + workerId + ": unknown command " + line);
+            }
+        }
+    }
+
+    private void mineTopK(int k) throws IOException {
+        Stats stats = AlgorithmFactory.create(algorithm).runAlgorithm(db, k);
+        for (Itemset pattern : stats.getPatterns()) {
+            send(Protocol.CAND + " " + Protocol.formatItems(pattern.getItems()), false);
+        }
+        send(Protocol.DONE, true);
+    }
+
+    /**
+     * Mines on a separate thread so THRESHOLD and EVAL keep being served meanwhile.
+     */
+    private void startThresholdMining(double threshold) {
+        MiningAlgorithm algo = AlgorithmFactory.create(algorithm);
+        algo.setCandidateSink(candidate -> {
+            try {
+                send(Protocol.CAND + " " + Protocol.formatItems(candidate.getItems()), false);
+            } catch (IOException e) {
+                throw new IllegalStateException("Lost connection to coordinator", e);
+            }
+        }, threshold);
+        running = algo;
+
+        Thread miner = new Thread(() -> {
+            try {
+                algo.runAlgorithm(db, 1);
+                send(Protocol.DONE, true);
+            } catch (IOException e) {
+                System.err.println("Worker " + workerId + ": " + e.getMessage());
+            } finally {
+                running = null;
+            }
+        }, "partition-miner-" + workerId);
+        miner.start();
+    }
+
+    /**
+     * Exact local expected utility and support of each itemset, via the TID list of its rarest item.
+     */
+    private void evaluate(BufferedReader in, int id, int count) throws IOException {
+        VerticalIndex index = db.getVerticalIndex();
+        List<Transaction> transactions = db.getTransactions();
+        StringBuilder reply = new StringBuilder(count * 32);
+        reply.append(Protocol.VALUES).append(' ').append(id).append(' ').append(count).append('\n');
+
+        for (int c = 0; c < count; c++) {
+            int[] items = Protocol.parseItems(in.readLine());
+            int[] rarest = index.getTids(items[0]);
+            for (int item : items) {
+                int[] tids = index.getTids(item);
+                if (tids.length < rarest.length) rarest = tids;
+            }
+
+            double utility = 0;
+            double support = 0;
+            for (int tid : rarest) {
+                Transaction t = transactions.get(tid);
+                if (t.containsAll(items)) {
+                    utility += t.calculateUtilityOf(items);
+                    support += t.calculateProbabilityOf(items);
+                }
+            }
+            reply.append(utility).append(' ').append(support).append('\n');
+        }
+        send(reply.substring(0, reply.length() - 1), true);
+    }
+
+    // Called from the command loop and the mining thread
+    private synchronized void send(String message, boolean flush) throws IOException {
+        out.write(message);
+        out.write('\n');
+        long now = System.nanoTime();
+        if (flush || now - lastFlushNanos > FLUSH_INTERVAL_NANOS) {
+            out.flush();
+            lastFlushNanos = now;
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package com.project.distributed;
+
+import com.project.algorithms.base.ClosedTopK;
+import com.project.algorithms.base.Stats;
+import com.project.model.Itemset;
+import com.project.utils.MathUtils;
+import com.project.utils.MemoryTracker;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Partitioned Top-K mining: the dataset file is split round-robin into P shards, each mined
+ * by its own worker JVM (see {@link PartitionWorker}) over localhost sockets, and the
+ * coordinator merges the results. No process ever holds the whole dataset.
+ *
+ * Exactness: an itemset's expected utility is the sum of its utilities in the shards, so one
+ * reaching a global threshold T reaches T/P in at least one shard. Workers stream every local
+ * itemset reaching T/P; the coordinator evaluates each candidate exactly on all shards.
+ * T is a lower bound on the K-th closed utility: the K-th best of the maximum utilities per
+ * distinct support (itemsets with different supports have different closures, and a closure
+ * never has a lower utility). It is seeded from the local Top-Ks and broadcast as it rises.
+ *
+ * Usage: java -cp bin com.project.distributed.PartitionedMiner file=data/liquor.txt k=100 partitions=4
+ */
+public class PartitionedMiner {
+
+    private static final int EVAL_BATCH = 512;
+    /** Supports closer than this are treated as one closure when bounding T */
+    private static final double SUPPORT_RESOLUTION = 1e-6;
+
+    private final int partitions;
+    private final String algorithm;
+    private final String workerHeap;
+
+    private final List<Writer> writers = new ArrayList<>();
+    private final BlockingQueue<Message> inbox = new LinkedBlockingQueue<>();
+
+    // Candidate bookkeeping
+    private final Map<String, Candidate> candidates = new HashMap<>();
+    private final List<Candidate> pending = new ArrayList<>();
+    private final Map<Integer, Batch> outstanding = new HashMap<>();
+    private final Map<Long, Double> maxUtilityBySupport = new HashMap<>();
+    private int nextBatchId;
+    private int k;
+    private double threshold;
+
+    /** A globally evaluated itemset */
+    private static class Candidate {
+        final int[] items;
+        double utility;
+        double support;
+
+        Candidate(int[] items) {
+            this.items = items;
+        }
+    }
+
+    private static class Batch {
+        final List<Candidate> members;
+        int responses;
+
+        Batch(List<Candidate> members) {
+            this.members = members;
+        }
+    }
+
+    /** A line (or VALUES block) received from a worker */
+    private static class Message {
+        final String type;
+        final String body;
+        final double[] values; // VALUES: utility, support pairs
+
+        Message(String type, String body, double[] values) {
+            this.type = type;
+            this.body = body;
+            this.values = values;
+        }
+    }
+
+    public PartitionedMiner(int partitions, String algorithm, String workerHeap) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("partitions must be >= 1");
+        }
+        this.partitions = partitions;
+        this.algorithm = algorithm;
+        this.workerHeap = workerHeap;
+    }
+
+    /**
+     * Mines the Top-K closed itemsets of a DataLoader-format file.
+     */
+    public Stats run(String path, int k) throws IOException, InterruptedException {
+        long start = System.currentTimeMillis();
+        MemoryTracker tracker = new MemoryTracker();
+        tracker.start();
+        List<Itemset> finalists;
+        try {
+            finalists = mine(path, k);
+        } finally {
+            tracker.stop();
+        }
+
+        // In descending utility order a superset with the same support (whose utility is
+        // never lower) is offered before its subsets, so the closed checks see it first
+        ClosedTopK topK = new ClosedTopK(k);
+        for (Itemset finalist : finalists) {
+            topK.add(finalist, false);
+        }
+        Stats stats = new Stats(algorithm + " x" + partitions);
+        stats.setRuntime(System.currentTimeMillis() - start);
+        stats.setMemory(tracker.getPeakHeapMemory());
+        stats.setAllocatedMemory(tracker.getAllocatedMemory());
+        stats.setPatternCount(topK.size());
+        stats.setMinUtilThreshold(topK.getThreshold());
+        stats.setPatterns(topK.getPatterns());
+        return stats;
+    }
+
+    /**
+     * Runs both rounds on the workers.
+     * @return The candidates reaching the final threshold, exactly evaluated, highest utility first.
+     */
+    private List<Itemset> mine(String path, int k) throws IOException, InterruptedException {
+        this.k = k;
+        File shardDir = Files.createTempDirectory("topk-shards").toFile();
+        List<Process> workers = new ArrayList<>();
+
+        try (ServerSocket server = new ServerSocket(0, partitions, InetAddress.getLoopbackAddress())) {
+            List<File> shards = split(path, shardDir);
+            for (int i = 0; i < partitions; i++) {
+                workers.add(startWorker(server.getLocalPort(), i, shards.get(i)));
+            }
+            connect(server);
+
+            // Round 1: local Top-Ks seed the threshold
+            broadcast(Protocol.TOPK + " " + k);
+            collectUntilDone();
+
+            // Round 2: every itemset reaching T/P in some shard, T rising as candidates are evaluated
+            broadcast(Protocol.MINE + " " + threshold / partitions);
+            collectUntilDone();
+            broadcast(Protocol.QUIT);
+        } finally {
+            for (Process worker : workers) {
+                if (!worker.waitFor(10, TimeUnit.SECONDS)) {
+                    worker.destroyForcibly();
+                }
+            }
+            File[] files = shardDir.listFiles();
+            if (files != null) {
+                for (File f : files) f.delete();
+            }
+            shardDir.delete();
+        }
+
+        List<Itemset> finalists = new ArrayList<>();
+        for (Candidate c : candidates.values()) {
+            if (MathUtils.greaterThanOrEqual(c.utility, threshold)) {
+                finalists.add(new Itemset(c.items, c.utility, c.support));
+            }
+        }
+        finalists.sort(Collections.reverseOrder());
+        return finalists;
+    }
+
+    /** Number of distinct candidates evaluated by the last run */
+    public int getCandidateCount() {
+        return candidates.size();
+    }
+
+    private List<File> split(String path, File shardDir) throws IOException {
+        List<File> shards = new ArrayList<>();
+        List<BufferedWriter> outs = new ArrayList<>();
+        try {
+            for (int i = 0; i < partitions; i++) {
+                File shard = new File(shardDir, "shard" + i + ".txt");
+                shards.add(shard);
+                outs.add(new BufferedWriter(new FileWriter(shard), 1 << 16));
+            }
+            try (BufferedReader br = new BufferedReader(new FileReader(path))) {
+                String line;
+                int next = 0;
+                while ((line = br.readLine()) != null) {
+                    BufferedWriter w = outs.get(next);
+                    w.write(line);
+                    w.newLine();
+                    next = (next + 1) % partitions;
+                }
+            }
+        } finally {
+            for (BufferedWriter w : outs) {
+                w.close();
+            }
+        }
+        return shards;
+    }
+
+    private Process startWorker(int port, int id, File shard) throws IOException {
+        String javaBin = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        List<String> command = new ArrayList<>();
+        command.add(javaBin);
+        command.add("-Xmx" + workerHeap);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(PartitionWorker.class.getName());
+        command.add(String.valueOf(port));
+        command.add(String.valueOf(id));
+        command.add(shard.getPath());
+        command.add(algorithm);
+        return new ProcessBuilder(command).inheritIO().start();
+    }
+
+    private void connect(ServerSocket server) throws IOException {
+        server.setSoTimeout(60_000);
+        Writer[] byId = new Writer[partitions];
+        for (int i = 0; i < partitions; i++) {
+            Socket socket = server.accept();
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            String[] ready = in.readLine().split(" ");
+            if (!ready[0].equals(Protocol.READY)) {
+                throw new IOException("Unexpected handshake: " + String.join(" ", ready));
+            }
+            int id = Integer.parseInt(ready[1]);
+            byId[id] = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), 1 << 16);
+            startReader(id, in);
+        }
+        writers.addAll(Arrays.asList(byId));
+    }
+
+    /** One thread per worker turns its socket into Messages on the shared inbox */
+    private void startReader(int id, BufferedReader in) {
+        Thread reader = new Thread(() -> {
+            try {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (line.startsWith(Protocol.VALUES)) {
+                        String[] header = line.split(" ");
+                        int count = Integer.parseInt(header[2]);
+                        double[] values = new double[count * 2];
+                        for (int i = 0; i < count; i++) {
+                            String[] uv = in.readLine().split(" ");
+                            values[2 * i] = Double.parseDouble(uv[0]);
+                            values[2 * i + 1] = Double.parseDouble(uv[1]);
+                        }
+                        inbox.add(new Message(Protocol.VALUES, header[1], values));
+                    } else if (line.startsWith(Protocol.CAND)) {
+                        inbox.add(new Message(Protocol.CAND, line.substring(Protocol.CAND.length() + 1), null));
+                    } else if (line.equals(Protocol.DONE)) {
+                        inbox.add(new Message(Protocol.DONE, null, null));
+                    }
+                }
+            } catch (IOException e) {
+                // Reported below as a lost worker
+            }
+            inbox.add(new Message(null, "Worker " + id + " disconnected", null));
+        }, "partition-reader-" + id);
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Handles worker messages until every worker sent DONE and all candidates are evaluated.
+     */
+    private void collectUntilDone() throws IOException, InterruptedException {
+        int done = 0;
+        while (done < partitions || !pending.isEmpty() || !outstanding.isEmpty()) {
+            Message msg = inbox.poll();
+            if (msg == null) {
+                // Idle: evaluate what has accumulated, then wait
+                if (!pending.isEmpty()) {
+                    sendEvalBatch();
+                    continue;
+                }
+                msg = inbox.take();
+            }
+
+            if (msg.type == null) {
+                if (done == partitions && pending.isEmpty() && outstanding.isEmpty()) break;
+                throw new IOException(msg.body);
+            }
+            switch (msg.type) {
+                case Protocol.CAND:
+                    if (!candidates.containsKey(msg.body)) {
+                        Candidate c = new Candidate(Protocol.parseItems(msg.body));
+                        candidates.put(msg.body, c);
+                        pending.add(c);
+                        if (pending.size() >= EVAL_BATCH) {
+                            sendEvalBatch();
+                        }
+                    }
+                    break;
+                case Protocol.VALUES:
+                    onValues(Integer.parseInt(msg.body), msg.values);
+                    break;
+                case Protocol.DONE:
+                    done++;
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private void sendEvalBatch() throws IOException {
+        int id = nextBatchId++;
+        Batch batch = new Batch(new ArrayList<>(pending));
+        pending.clear();
+        outstanding.put(id, batch);
+
+        StringBuilder sb = new StringBuilder(batch.members.size() * 24);
+        sb.append(Protocol.EVAL).append(' ').append(id).append(' ').append(batch.members.size()).append('\n');
+        for (Candidate c : batch.members) {
+            sb.append(Protocol.formatItems(c.items)).append('\n');
+        }
+        String message = sb.toString();
+        for (Writer w : writers) {
+            w.write(message);
+            w.flush();
+        }
+    }
+
+    private void onValues(int id, double[] values) throws IOException {
+        Batch batch = outstanding.get(id);
+        for (int i = 0; i < batch.members.size(); i++) {
+            Candidate c = batch.members.get(i);
+            c.utility += values[2 * i];
+            c.support += values[2 * i + 1];
+        }
+        if (++batch.responses < partitions) {
+            return;
+        }
+
+        // Fully evaluated: tighten the threshold
+        outstanding.remove(id);
+        for (Candidate c : batch.members) {
+            maxUtilityBySupport.merge(Math.round(c.support / SUPPORT_RESOLUTION), c.utility, Math::max);
+        }
+        if (maxUtilityBySupport.size() >= k) {
+            PriorityQueue<Double> best = new PriorityQueue<>(k);
+            for (double u : maxUtilityBySupport.values()) {
+                if (best.size() < k) {
+                    best.add(u);
+                } else if (u > best.peek()) {
+                    best.poll();
+                    best.add(u);
+                }
+            }
+            if (best.peek() > threshold) {
+                threshold = best.peek();
+                broadcast(Protocol.THRESHOLD + " " + threshold / partitions);
+            }
+        }
+    }
+
+    private void broadcast(String command) throws IOException {
+        for (Writer w : writers) {
+            w.write(command);
+            w.write('\n');
+            w.flush();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        options.put("file", "data/foodmart.txt");
+        options.put("k", "100");
+        options.put("partitions", "4");
+        options.put("algorithm", "U-EFIM");
+        options.put("xmx", "1g");
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            if (kv.length == 2) {
+                options.put(kv[0], kv[1]);
+            } else {
+                System.err.println("Ignoring argument (expected key=value): " + arg);
+            }
+        }
+
+        PartitionedMiner miner = new PartitionedMiner(Integer.parseInt(options.get("partitions")),
+                options.get("algorithm"), options.get("xmx"));
+        Stats stats = miner.run(options.get("file"), Integer.parseInt(options.get("k")));
+        System.out.println(stats + " | Candidates: " + miner.getCandidateCount());
+    }
+}
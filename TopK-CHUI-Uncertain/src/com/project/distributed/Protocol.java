@@ -0,0 +1,50 @@
+package com.project.distributed;
+
+/**
+ * Line-based protocol between the partitioned-mining coordinator and its workers.
+ *
+ * Coordinator -> worker:
+ *   TOPK k                 mine the local Top-K, reply CAND* DONE
+ *   MINE threshold         stream every local itemset reaching threshold, reply CAND* DONE
+ *   THRESHOLD threshold    raise the threshold of the running MINE
+ *   EVAL id n + n lines    local (utility, support) of n itemsets, reply VALUES id n + n lines
+ *   QUIT
+ * Worker -> coordinator:
+ *   READY workerId transactionCount
+ *   CAND item item ...
+ *   VALUES id n + n lines "utility support"
+ *   DONE
+ */
+final class Protocol {
+    static final String READY = "READY";
+    static final String TOPK = "TOPK";
+    static final String MINE = "MINE";
+    static final String THRESHOLD = "THRESHOLD";
+    static final String EVAL = "EVAL";
+    static final String VALUES = "VALUES";
+    static final String CAND = "CAND";
+    static final String DONE = "DONE";
+    static final String QUIT = "QUIT";
+
+    private Protocol() {
+        // Prevent instantiation
+    }
+
+    static String formatItems(int[] items) {
+        StringBuilder sb = new StringBuilder(items.length * 6);
+        for (int i = 0; i < items.length; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(items[i]);
+        }
+        return sb.toString();
+    }
+
+    static int[] parseItems(String text) {
+        String[] parts = text.trim().split(" ");
+        int[] items = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            items[i] = Integer.parseInt(parts[i]);
+        }
+        return items;
+    }
+}
@@ -0,0 +1,318 @@
+package com.project.manager;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of synthetic uncertain transaction databases in the
+ * DataLoader format (Items:TU:Utilities:Probabilities).
+ * Lines are streamed to disk one at a time, so output size is not bounded by the heap.
+ * The same seed and parameters always produce the same file.
+ *
+ * Usage: java -cp bin com.project.manager.DataGenerator out=data/synth.txt transactions=100000 items=1000 ...
+ */
+public class DataGenerator {
+
+    public enum UtilityDistribution { UNIFORM, LOGNORMAL }
+    public enum ProbabilityDistribution { UNIFORM, NORMAL }
+
+    private long transactionCount = 10_000;
+    private int alphabetSize = 1_000;
+    private double avgLength = 10;
+    private double density = 0;          // If > 0, overrides avgLength as a fraction of alphabetSize
+    private double zipfSkew = 0;         // 0 = uniform item popularity
+    private long seed = 42;
+
+    private UtilityDistribution utilityDistribution = UtilityDistribution.UNIFORM;
+    private int minUtility = 1;          // UNIFORM bounds (inclusive)
+    private int maxUtility = 1_000;
+    private double utilityMu = 4.0;      // LOGNORMAL parameters of ln(u)
+    private double utilitySigma = 1.0;
+
+    private ProbabilityDistribution probabilityDistribution = ProbabilityDistribution.UNIFORM;
+    private double minProbability = 0.5; // UNIFORM bounds; also clamps NORMAL
+    private double maxProbability = 1.0;
+    private double probabilityMean = 0.8; // NORMAL parameters
+    private double probabilityStdDev = 0.1;
+
+    public DataGenerator setTransactionCount(long transactionCount) { this.transactionCount = transactionCount; return this; }
+    public DataGenerator setAlphabetSize(int alphabetSize) { this.alphabetSize = alphabetSize; return this; }
+    public DataGenerator setAvgLength(double avgLength) { this.avgLength = avgLength; return this; }
+    public DataGenerator setDensity(double density) { this.density = density; return this; }
+    public DataGenerator setZipfSkew(double zipfSkew) { this.zipfSkew = zipfSkew; return this; }
+    public DataGenerator setSeed(long seed) { this.seed = seed; return this; }
+    public DataGenerator setUtilityDistribution(UtilityDistribution d) { this.utilityDistribution = d; return this; }
+    public DataGenerator setUtilityRange(int min, int max) { this.minUtility = min; this.maxUtility = max; return this; }
+    public DataGenerator setUtilityLogNormal(double mu, double sigma) { this.utilityMu = mu; this.utilitySigma = sigma; return this; }
+    public DataGenerator setProbabilityDistribution(ProbabilityDistribution d) { this.probabilityDistribution = d; return this; }
+    public DataGenerator setProbabilityRange(double min, double max) { this.minProbability = min; this.maxProbability = max; return this; }
+    public DataGenerator setProbabilityNormal(double mean, double stdDev) { this.probabilityMean = mean; this.probabilityStdDev = stdDev; return this; }
+
+    /**
+     * Writes the database to the given path (parent directories are created).
+     */
+    public void generate(String path) throws IOException {
+        if (alphabetSize < 1 || transactionCount < 0) {
+            throw new IllegalArgumentException("alphabetSize must be >= 1 and transactionCount >= 0");
+        }
+        double meanLength = density > 0 ? density * alphabetSize : avgLength;
+        meanLength = Math.max(1, Math.min(meanLength, alphabetSize));
+
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] popularityCdf = buildZipfCdf();
+        double[] popularity = new double[alphabetSize];
+        for (int r = 0; r < alphabetSize; r++) {
+            popularity[r] = r == 0 ? popularityCdf[0] : popularityCdf[r] - popularityCdf[r - 1];
+        }
+        int[] rankToItem = shuffledItemIds(random);
+
+        File file = new File(path);
+        if (file.getParentFile() != null && !file.getParentFile().exists()) {
+            file.getParentFile().mkdirs();
+        }
+
+        boolean[] picked = new boolean[alphabetSize]; // By rank
+        int[] ranks = new int[alphabetSize];
+        double[] keys = new double[alphabetSize];
+        int[] items = new int[alphabetSize];
+        int[] utilities = new int[alphabetSize];
+        StringBuilder line = new StringBuilder(256);
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file), 1 << 20)) {
+            for (long t = 0; t < transactionCount; t++) {
+                int length = sampleLength(random, meanLength);
+
+                // Draw distinct items by popularity: rejection of duplicates while at least half of
+                // the popularity is left (two draws per item on average), then sampling without
+                // replacement among the remaining items, so long or skewed transactions stay bounded
+                int drawn = 0;
+                double pickedPopularity = 0;
+                while (drawn < length && pickedPopularity < 0.5) {
+                    int rank;
+                    do {
+                        rank = sampleRank(random, popularityCdf);
+                    } while (picked[rank]);
+                    picked[rank] = true;
+                    pickedPopularity += popularity[rank];
+                    ranks[drawn++] = rank;
+                }
+                if (drawn < length) {
+                    drawn = sampleRemaining(random, popularity, picked, length - drawn, ranks, drawn, keys);
+                }
+                for (int i = 0; i < length; i++) {
+                    picked[ranks[i]] = false;
+                    items[i] = rankToItem[ranks[i]];
+                }
+                Arrays.sort(items, 0, length);
+
+                long transactionUtility = 0;
+                for (int i = 0; i < length; i++) {
+                    utilities[i] = sampleUtility(random);
+                    transactionUtility += utilities[i];
+                }
+
+                line.setLength(0);
+                for (int i = 0; i < length; i++) {
+                    if (i > 0) line.append(' ');
+                    line.append(items[i]);
+                }
+                line.append(':').append(transactionUtility).append(':');
+                for (int i = 0; i < length; i++) {
+                    if (i > 0) line.append(' ');
+                    line.append(utilities[i]);
+                }
+                line.append(':');
+                for (int i = 0; i < length; i++) {
+                    if (i > 0) line.append(' ');
+                    appendProbability(line, sampleProbability(random));
+                }
+                writer.write(line.toString());
+                writer.newLine();
+            }
+        }
+    }
+
+    /** Cumulative popularity of ranks 0..alphabetSize-1, P(rank r) ~ 1 / (r+1)^skew */
+    private double[] buildZipfCdf() {
+        double[] cdf = new double[alphabetSize];
+        double sum = 0;
+        for (int r = 0; r < alphabetSize; r++) {
+            sum += 1.0 / Math.pow(r + 1, zipfSkew);
+            cdf[r] = sum;
+        }
+        for (int r = 0; r < alphabetSize; r++) {
+            cdf[r] /= sum;
+        }
+        return cdf;
+    }
+
+    /** Random (but seeded) mapping of popularity ranks to item IDs 1..alphabetSize */
+    private int[] shuffledItemIds(SplittableRandom random) {
+        int[] ids = new int[alphabetSize];
+        for (int i = 0; i < alphabetSize; i++) {
+            ids[i] = i + 1;
+        }
+        for (int i = alphabetSize - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = ids[i];
+            ids[i] = ids[j];
+            ids[j] = tmp;
+        }
+        return ids;
+    }
+
+    private static int sampleRank(SplittableRandom random, double[] cdf) {
+        int idx = Arrays.binarySearch(cdf, random.nextDouble());
+        idx = idx >= 0 ? idx : -idx - 1;
+        return Math.min(idx, cdf.length - 1);
+    }
+
+    /**
+     * Weighted sampling without replacement of count ranks among those not picked yet
+     * (Efraimidis-Spirakis: key ln(u) / weight, the count largest keys win), appended to
+     * ranks from position from. Same distribution as drawing one by one and rejecting
+     * duplicates, in O(alphabetSize log count). keys is scratch space for a min-heap.
+     * @return The new number of ranks.
+     */
+    private static int sampleRemaining(SplittableRandom random, double[] popularity, boolean[] picked,
+                                       int count, int[] ranks, int from, double[] keys) {
+        int size = 0; // Heap of the count largest keys in keys[0..size) / ranks[from..from+size)
+        for (int r = 0; r < popularity.length; r++) {
+            if (picked[r]) {
+                continue;
+            }
+            double key = popularity[r] > 0
+                    ? Math.log(1 - random.nextDouble()) / popularity[r]
+                    : Double.NEGATIVE_INFINITY;
+            if (size < count) {
+                // Sift up
+                int i = size++;
+                while (i > 0 && keys[(i - 1) / 2] > key) {
+                    keys[i] = keys[(i - 1) / 2];
+                    ranks[from + i] = ranks[from + (i - 1) / 2];
+                    i = (i - 1) / 2;
+                }
+                keys[i] = key;
+                ranks[from + i] = r;
+            } else if (key > keys[0]) {
+                // Replace the smallest key and sift down
+                int i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= size) break;
+                    if (child + 1 < size && keys[child + 1] < keys[child]) child++;
+                    if (keys[child] >= key) break;
+                    keys[i] = keys[child];
+                    ranks[from + i] = ranks[from + child];
+                    i = child;
+                }
+                keys[i] = key;
+                ranks[from + i] = r;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            picked[ranks[from + i]] = true;
+        }
+        return from + size;
+    }
+
+    /** Poisson-distributed length (mean meanLength), clamped to [1, alphabetSize] */
+    private int sampleLength(SplittableRandom random, double meanLength) {
+        int length;
+        if (meanLength < 30) {
+            // Knuth's multiplication method
+            double limit = Math.exp(-meanLength);
+            double product = random.nextDouble();
+            length = 0;
+            while (product > limit) {
+                product *= random.nextDouble();
+                length++;
+            }
+        } else {
+            // Normal approximation for large means
+            length = (int) Math.round(meanLength + Math.sqrt(meanLength) * nextGaussian(random));
+        }
+        return Math.max(1, Math.min(length, alphabetSize));
+    }
+
+    private int sampleUtility(SplittableRandom random) {
+        if (utilityDistribution == UtilityDistribution.LOGNORMAL) {
+            long u = Math.round(Math.exp(utilityMu + utilitySigma * nextGaussian(random)));
+            return (int) Math.max(1, Math.min(u, Integer.MAX_VALUE));
+        }
+        return minUtility + random.nextInt(maxUtility - minUtility + 1);
+    }
+
+    private double sampleProbability(SplittableRandom random) {
+        double p;
+        if (probabilityDistribution == ProbabilityDistribution.NORMAL) {
+            p = probabilityMean + probabilityStdDev * nextGaussian(random);
+        } else {
+            p = minProbability + (maxProbability - minProbability) * random.nextDouble();
+        }
+        // Existence probabilities must stay in (0, 1]
+        p = Math.max(minProbability, Math.min(p, maxProbability));
+        return Math.max(0.01, Math.min(p, 1.0));
+    }
+
+    /** Two decimals, like the shipped datasets */
+    private static void appendProbability(StringBuilder sb, double p) {
+        long hundredths = Math.round(p * 100);
+        if (hundredths >= 100) {
+            sb.append('1');
+            return;
+        }
+        sb.append("0.");
+        if (hundredths < 10) sb.append('0');
+        sb.append(hundredths);
+    }
+
+    /** Box-Muller transform (SplittableRandom has no nextGaussian on JDK 17) */
+    private static double nextGaussian(SplittableRandom random) {
+        double u1 = random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(1 - u1)) * Math.cos(2 * Math.PI * u2);
+    }
+
+    public static void main(String[] args) throws IOException {
+        DataGenerator generator = new DataGenerator();
+        String out = "data/synthetic.txt";
+
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            if (kv.length != 2) {
+                System.err.println("Ignoring argument (expected key=value): " + arg);
+                continue;
+            }
+            String v = kv[1];
+            switch (kv[0]) {
+                case "out": out = v; break;
+                case "transactions": generator.setTransactionCount(Long.parseLong(v)); break;
+                case "items": generator.setAlphabetSize(Integer.parseInt(v)); break;
+                case "avgLength": generator.setAvgLength(Double.parseDouble(v)); break;
+                case "density": generator.setDensity(Double.parseDouble(v)); break;
+                case "zipf": generator.setZipfSkew(Double.parseDouble(v)); break;
+                case "seed": generator.setSeed(Long.parseLong(v)); break;
+                case "utilDist": generator.setUtilityDistribution(UtilityDistribution.valueOf(v.toUpperCase())); break;
+                case "minUtil": generator.minUtility = Integer.parseInt(v); break;
+                case "maxUtil": generator.maxUtility = Integer.parseInt(v); break;
+                case "utilMu": generator.utilityMu = Double.parseDouble(v); break;
+                case "utilSigma": generator.utilitySigma = Double.parseDouble(v); break;
+                case "probDist": generator.setProbabilityDistribution(ProbabilityDistribution.valueOf(v.toUpperCase())); break;
+                case "minProb": generator.minProbability = Double.parseDouble(v); break;
+                case "maxProb": generator.maxProbability = Double.parseDouble(v); break;
+                case "probMean": generator.probabilityMean = Double.parseDouble(v); break;
+                case "probStdDev": generator.probabilityStdDev = Double.parseDouble(v); break;
+                default: System.err.println("Unknown option: " + kv[0]);
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        generator.generate(out);
+        System.out.printf("Wrote %s in %dms%n", out, System.currentTimeMillis() - start);
+    }
+}
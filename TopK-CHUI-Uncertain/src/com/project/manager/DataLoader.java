@@ -10,60 +10,33 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class DataLoader {
+    /** -Dtopk.offheap=true keeps every loaded dataset in direct buffers */
+    private static final boolean OFF_HEAP = Boolean.getBoolean("topk.offheap");
 
     public static Dataset load(String path) {
-        Dataset dataset = new Dataset();
+        return load(path, OFF_HEAP);
+    }
+
+    /**
+     * Loads a dataset file. Off-heap, each parsed transaction is copied into the direct
+     * buffers and dropped, so the heap never holds the whole dataset as objects.
+     */
+    public static Dataset load(String path, boolean offHeap) {
+        Dataset dataset = offHeap ? Dataset.offHeap() : new Dataset();
         int maxItemId = 0;
 
         try (BufferedReader br = new BufferedReader(new FileReader(path))) {
             String line;
             while ((line = br.readLine()) != null) {
-                // Ignore comments and empty lines
-                if (line.trim().isEmpty() || line.startsWith("%") || line.startsWith("#")) continue;
-                
-                // Format: Items:TU:Utilities:Probabilities
-                String[] parts = line.split(":");
-                
-                if (parts.length < 4) {
-                    continue; 
-                }
-
-                try {
-                    // Parse Items
-                    String[] itemStr = parts[0].trim().split("\\s+");
-                    // Parse Transaction Utility (TU)
-                    double transactionUtility = Double.parseDouble(parts[1]); 
-                    // Parse Item Utilities
-                    String[] utilStr = parts[2].trim().split("\\s+");
-                    // Parse Probabilities
-                    String[] probStr = parts[3].trim().split("\\s+");
+                Transaction t = parseTransaction(line);
+                if (t == null) continue;
 
-                    // Validation: All arrays must be same length
-                    if (itemStr.length != utilStr.length || itemStr.length != probStr.length) {
-                        continue;
+                for (int itemId : t.getItemIds()) {
+                    if (itemId > maxItemId) {
+                        maxItemId = itemId;
                     }
-
-                    List<Item> items = new ArrayList<>();
-                    for (int i = 0; i < itemStr.length; i++) {
-                        int itemId = Integer.parseInt(itemStr[i]);
-                        double utility = Double.parseDouble(utilStr[i]);
-                        double probability = Double.parseDouble(probStr[i]);
-                        
-                        items.add(new Item(itemId, utility, probability));
-                        
-                        if (itemId > maxItemId) {
-                            maxItemId = itemId;
-                        }
-                    }
-
-                    // Create Transaction and add to dataset
-                    Transaction t = new Transaction(items, transactionUtility);
-                    dataset.addTransaction(t);
-                    
-                } catch (NumberFormatException e) {
-                   // Skip specific malformed lines without crashing
-                   System.err.println("Skipping malformed line: " + line);
                 }
+                dataset.addTransaction(t);
             }
             
             dataset.setMaxItemId(maxItemId); 
@@ -74,4 +47,51 @@ public class DataLoader {
         
         return dataset;
     }
+
+    /**
+     * Parses one line (Format: Items:TU:Utilities:Probabilities).
+     * @return The transaction, or null for comments, empty lines and invalid lines.
+     */
+    public static Transaction parseTransaction(String line) {
+        // Ignore comments and empty lines
+        if (line.trim().isEmpty() || line.startsWith("%") || line.startsWith("#")) return null;
+        
+        String[] parts = line.split(":");
+        
+        if (parts.length < 4) {
+            return null; 
+        }
+
+        try {
+            // Parse Items
+            String[] itemStr = parts[0].trim().split("\\s+");
+            // Parse Transaction Utility (TU)
+            double transactionUtility = Double.parseDouble(parts[1]); 
+            // Parse Item Utilities
+            String[] utilStr = parts[2].trim().split("\\s+");
+            // Parse Probabilities
+            String[] probStr = parts[3].trim().split("\\s+");
+
+            // Validation: All arrays must be same length
+            if (itemStr.length != utilStr.length || itemStr.length != probStr.length) {
+                return null;
+            }
+
+            List<Item> items = new ArrayList<>();
+            for (int i = 0; i < itemStr.length; i++) {
+                int itemId = Integer.parseInt(itemStr[i]);
+                double utility = Double.parseDouble(utilStr[i]);
+                double probability = Double.parseDouble(probStr[i]);
+                
+                items.add(new Item(itemId, utility, probability));
+            }
+
+            return new Transaction(items, transactionUtility);
+            
+        } catch (NumberFormatException e) {
+           // Skip specific malformed lines without crashing
+           System.err.println("Skipping malformed line: " + line);
+           return null;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.project.manager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Measured samples of one dataset x K x algorithm cell of an experiment,
+ * with the summary statistics reported by SummaryWriter.
+ */
+public class ExperimentCell {
+    public enum Status { OK, TIMEOUT, OOM, ERROR }
+
+    private final String dataset;
+    private final String algorithm;
+    private final int k;
+    private Status status = Status.OK;
+
+    private final List<Double> runtimes = new ArrayList<>(); // ms
+    private final List<Double> memories = new ArrayList<>(); // MB
+    private int patternCount;
+    private double minUtilThreshold;
+    private boolean agreement = true; // false if another algorithm disagrees on this (dataset, K)
+
+    public ExperimentCell(String dataset, String algorithm, int k) {
+        this.dataset = dataset;
+        this.algorithm = algorithm;
+        this.k = k;
+    }
+
+    public void addSample(double runtime, double memory, int patternCount, double minUtilThreshold) {
+        runtimes.add(runtime);
+        memories.add(memory);
+        this.patternCount = patternCount;
+        this.minUtilThreshold = minUtilThreshold;
+    }
+
+    public String getDataset() { return dataset; }
+    public String getAlgorithm() { return algorithm; }
+    public int getK() { return k; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public int getSampleCount() { return runtimes.size(); }
+    public int getPatternCount() { return patternCount; }
+    public double getMinUtilThreshold() { return minUtilThreshold; }
+
+    public boolean isAgreement() { return agreement; }
+    public void setAgreement(boolean agreement) { this.agreement = agreement; }
+
+    public double getRuntimeMedian() { return percentile(runtimes, 50); }
+    public double getRuntimeP90() { return percentile(runtimes, 90); }
+    public double getRuntimeStdDev() { return stdDev(runtimes); }
+
+    public double getMemoryMedian() { return percentile(memories, 50); }
+    public double getMemoryP90() { return percentile(memories, 90); }
+    public double getMemoryStdDev() { return stdDev(memories); }
+
+    /** Nearest-rank percentile (NaN when there are no samples) */
+    static double percentile(List<Double> values, double p) {
+        if (values.isEmpty()) return Double.NaN;
+        List<Double> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        if (p == 50 && sorted.size() % 2 == 0) {
+            // Conventional median for an even sample count
+            int mid = sorted.size() / 2;
+            return (sorted.get(mid - 1) + sorted.get(mid)) / 2;
+        }
+        int rank = (int) Math.ceil(p / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, rank - 1));
+    }
+
+    /** Sample standard deviation (0 for fewer than two samples) */
+    static double stdDev(List<Double> values) {
+        int n = values.size();
+        if (n < 2) return 0;
+        double mean = 0;
+        for (double v : values) mean += v;
+        mean /= n;
+        double sumSq = 0;
+        for (double v : values) sumSq += (v - mean) * (v - mean);
+        return Math.sqrt(sumSq / (n - 1));
+    }
+}
@@ -0,0 +1,225 @@
+package com.project.manager;
+
+import com.project.algorithms.base.MiningAlgorithm;
+import com.project.algorithms.base.SearchCounters;
+import com.project.algorithms.base.Stats;
+import com.project.model.Dataset;
+import com.project.model.Itemset;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * On-disk cache of mining results (Top-K itemsets + Stats, search counters included), one file per entry.
+ * Key: dataset fingerprint + algorithm + K + result-affecting parameters, so appending
+ * transactions or changing parameters misses automatically; stale entries age out.
+ * Size is bounded by total bytes with LRU eviction (file modification time = last access).
+ * Only completed runs are cached.
+ *
+ * Usage: Stats stats = new ResultCache("cache", 256L << 20).run(new UEFIM_Miner(), "U-EFIM", db, 100);
+ */
+public class ResultCache {
+    private static final int MAGIC = 0x544B5243; // "TKRC"
+    private static final int VERSION = 2;
+    private static final String EXTENSION = ".bin";
+
+    private final File directory;
+    private final long maxBytes;
+
+    public ResultCache(String directory, long maxBytes) {
+        this.directory = new File(directory);
+        this.maxBytes = maxBytes;
+        if (!this.directory.exists()) {
+            this.directory.mkdirs();
+        }
+    }
+
+    /**
+     * Returns the cached result if present, otherwise runs the miner and caches its result.
+     */
+    public Stats run(MiningAlgorithm algo, String algoName, Dataset db, int k) {
+        Stats cached = get(db, algoName, k, algo.getParameters());
+        if (cached != null) {
+            return cached;
+        }
+        Stats stats = algo.runAlgorithm(db, k);
+        put(db, algoName, k, algo.getParameters(), stats);
+        return stats;
+    }
+
+    /**
+     * @return The cached Stats (with patterns), or null on a miss or unreadable entry.
+     */
+    public synchronized Stats get(Dataset db, String algoName, int k, String parameters) {
+        String fingerprint = db.getFingerprint();
+        File file = entryFile(fingerprint, algoName, k, parameters);
+        if (!file.exists()) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            // Guards against file name collisions
+            if (!in.readUTF().equals(fingerprint) || !in.readUTF().equals(algoName)
+                    || in.readInt() != k || !in.readUTF().equals(parameters)) {
+                return null;
+            }
+
+            Stats stats = new Stats(algoName);
+            stats.setRuntime(in.readLong());
+            stats.setMemory(in.readDouble());
+            stats.setAllocatedMemory(in.readDouble());
+            stats.setPatternCount(in.readInt());
+            stats.setMinUtilThreshold(in.readDouble());
+            stats.setSpilledMemory(in.readDouble());
+            stats.setCounters(SearchCounters.readFrom(in));
+
+            int patternCount = in.readInt();
+            List<Itemset> patterns = new ArrayList<>(patternCount);
+            for (int i = 0; i < patternCount; i++) {
+                int[] items = new int[in.readInt()];
+                for (int j = 0; j < items.length; j++) {
+                    items[j] = in.readInt();
+                }
+                patterns.add(new Itemset(items, in.readDouble(), in.readDouble()));
+            }
+            stats.setPatterns(patterns);
+
+            file.setLastModified(System.currentTimeMillis()); // LRU touch
+            return stats;
+        } catch (IOException e) {
+            System.err.println("Ignoring unreadable cache entry " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stores a completed result, then evicts least recently used entries beyond maxBytes.
+     */
+    public synchronized void put(Dataset db, String algoName, int k, String parameters, Stats stats) {
+        if (!stats.isCompleted()) {
+            return; // Partial results depend on timing, not only on the key
+        }
+        String fingerprint = db.getFingerprint();
+        File file = entryFile(fingerprint, algoName, k, parameters);
+        File temp = new File(directory, file.getName() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(fingerprint);
+            out.writeUTF(algoName);
+            out.writeInt(k);
+            out.writeUTF(parameters);
+
+            out.writeLong(stats.getRuntime());
+            out.writeDouble(stats.getMemory());
+            out.writeDouble(stats.getAllocatedMemory());
+            out.writeInt(stats.getPatternCount());
+            out.writeDouble(stats.getMinUtilThreshold());
+            out.writeDouble(stats.getSpilledMemory());
+            stats.getCounters().writeTo(out);
+
+            out.writeInt(stats.getPatterns().size());
+            for (Itemset pattern : stats.getPatterns()) {
+                out.writeInt(pattern.getItems().length);
+                for (int item : pattern.getItems()) {
+                    out.writeInt(item);
+                }
+                out.writeDouble(pattern.getUtility());
+                out.writeDouble(pattern.getExpectedSupport());
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing cache entry: " + e.getMessage());
+            temp.delete();
+            return;
+        }
+
+        // Readers in other processes never see a half-written entry
+        try {
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing cache entry: " + e.getMessage());
+            temp.delete();
+            return;
+        }
+        evict();
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public synchronized void clear() {
+        for (File file : entries()) {
+            file.delete();
+        }
+    }
+
+    private void evict() {
+        File[] files = entries();
+        long total = 0;
+        for (File file : files) {
+            total += file.length();
+        }
+        if (total <= maxBytes) {
+            return;
+        }
+
+        // Oldest access first
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            if (total <= maxBytes) {
+                break;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                total -= length;
+            }
+        }
+    }
+
+    private File[] entries() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(EXTENSION));
+        return files != null ? files : new File[0];
+    }
+
+    private File entryFile(String fingerprint, String algoName, int k, String parameters) {
+        String key = fingerprint + '\n' + algoName + '\n' + k + '\n' + parameters;
+        return new File(directory, sha256Hex(key) + EXTENSION);
+    }
+
+    private static String sha256Hex(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,16 +1,27 @@
 package com.project.manager;
 
+import com.project.algorithms.base.SearchCounters;
+import com.project.algorithms.base.SearchCounters.Phase;
+import com.project.algorithms.base.SearchCounters.PruneRule;
 import com.project.algorithms.base.Stats;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Utility for logging experiment results to a CSV file.
+ * The header is owned by this class: a file written with other columns is migrated
+ * (cells moved by column name, new columns left empty) before rows are appended.
  */
 public class ResultWriter {
-    private static final String HEADER = "Algorithm,Dataset,K,Runtime(ms),Memory(MB),PatternCount,MinUtilThreshold";
+    private static final String HEADER = "Algorithm,Dataset,K,Runtime(ms),Memory(MB),PatternCount,MinUtilThreshold,Allocated(MB)"
+            + counterHeader();
     private static final String FILE_PATH = "output/experiments_result.csv";
 
     public static void write(String algoName, String dataName, int k, Stats stats) {
@@ -21,7 +32,10 @@ public class ResultWriter {
         }
 
         boolean isNew = !file.exists();
-        
+        if (!isNew) {
+            migrate(file);
+        }
+
         try (PrintWriter pw = new PrintWriter(new FileWriter(file, true))) {
             if (isNew) {
                 pw.println(HEADER);
@@ -29,19 +43,102 @@ public class ResultWriter {
             if (stats != null) {
                 String shortDataName = new File(dataName).getName();
                 
-                pw.printf("%s,%s,%d,%d,%.2f,%d,%.5f%n", 
+                pw.printf("%s,%s,%d,%d,%.2f,%d,%.5f,%.2f", 
                     algoName, 
                     shortDataName, 
                     k, 
                     stats.getRuntime(), 
                     stats.getMemory(), 
                     stats.getPatternCount(), 
-                    stats.getMinUtilThreshold()
+                    stats.getMinUtilThreshold(),
+                    stats.getAllocatedMemory()
                 );
+                pw.println(counterColumns(stats.getCounters()));
             }
         } catch (IOException e) {
             System.err.println("Error writing to CSV: " + e.getMessage());
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Rewrites a file whose header is not HEADER under the current columns, each cell moved
+     * by column name and missing columns left empty. Rows with more cells than their header
+     * cannot be placed and are dropped; the original file is kept next to it as .bak.
+     */
+    private static void migrate(File file) {
+        try {
+            List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+            if (lines.isEmpty() || lines.get(0).equals(HEADER)) {
+                return;
+            }
+            List<String> oldColumns = Arrays.asList(lines.get(0).split(",", -1));
+            String[] newColumns = HEADER.split(",", -1);
+            int[] source = new int[newColumns.length];
+            for (int i = 0; i < newColumns.length; i++) {
+                source[i] = oldColumns.indexOf(newColumns[i]);
+            }
+
+            File backup = new File(file.getPath() + ".bak");
+            Files.copy(file.toPath(), backup.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            int migrated = 0;
+            int dropped = 0;
+            try (PrintWriter pw = new PrintWriter(new FileWriter(file, false))) {
+                pw.println(HEADER);
+                for (String line : lines.subList(1, lines.size())) {
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+                    String[] cells = line.split(",", -1);
+                    if (cells.length > oldColumns.size()) {
+                        dropped++;
+                        continue;
+                    }
+                    StringBuilder sb = new StringBuilder();
+                    for (int i = 0; i < source.length; i++) {
+                        if (i > 0) sb.append(',');
+                        // Older rows may stop before the last columns of their header
+                        if (source[i] >= 0 && source[i] < cells.length) {
+                            sb.append(cells[source[i]]);
+                        }
+                    }
+                    pw.println(sb);
+                    migrated++;
+                }
+            }
+            System.err.printf("Migrated %s to the current columns: %d rows kept, %d misaligned rows dropped (original in %s)%n",
+                file, migrated, dropped, backup);
+        } catch (IOException e) {
+            System.err.println("Error migrating CSV: " + e.getMessage());
+        }
+    }
+
+    // Search counter columns (all zero unless the run used -Dtopk.counters=true)
+    private static String counterHeader() {
+        StringBuilder sb = new StringBuilder(",NodesVisited,Candidates");
+        for (PruneRule rule : PruneRule.values()) {
+            sb.append(",Pruned_").append(rule);
+        }
+        sb.append(",SavePatternCalls,SavePatternRejections,ClosedCheckComparisons,Elements");
+        for (Phase phase : Phase.values()) {
+            sb.append(',').append(phase).append("(ms)");
+        }
+        return sb.toString();
+    }
+
+    private static String counterColumns(SearchCounters c) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(',').append(c.getNodesVisited()).append(',').append(c.getCandidatesGenerated());
+        for (PruneRule rule : PruneRule.values()) {
+            sb.append(',').append(c.getPruned(rule));
+        }
+        sb.append(',').append(c.getSavePatternCalls())
+          .append(',').append(c.getSavePatternRejections())
+          .append(',').append(c.getClosedCheckComparisons())
+          .append(',').append(c.getElementsProcessed());
+        for (Phase phase : Phase.values()) {
+            sb.append(',').append(String.format("%.1f", c.getPhaseMillis(phase)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,68 @@
+package com.project.manager;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes the statistical summary of an experiment (one row per cell) as CSV and JSON.
+ */
+public class SummaryWriter {
+    private static final String HEADER = "Algorithm,Dataset,K,Status,Samples,"
+            + "RuntimeMedian(ms),RuntimeP90(ms),RuntimeStdDev(ms),"
+            + "MemoryMedian(MB),MemoryP90(MB),MemoryStdDev(MB),"
+            + "PatternCount,MinUtilThreshold,Agreement";
+
+    public static void writeCsv(String path, List<ExperimentCell> cells) {
+        try (PrintWriter pw = new PrintWriter(new FileWriter(prepare(path)))) {
+            pw.println(HEADER);
+            for (ExperimentCell c : cells) {
+                pw.printf(Locale.ROOT, "%s,%s,%d,%s,%d,%.1f,%.1f,%.1f,%.2f,%.2f,%.2f,%d,%.5f,%s%n",
+                    c.getAlgorithm(), c.getDataset(), c.getK(), c.getStatus(), c.getSampleCount(),
+                    c.getRuntimeMedian(), c.getRuntimeP90(), c.getRuntimeStdDev(),
+                    c.getMemoryMedian(), c.getMemoryP90(), c.getMemoryStdDev(),
+                    c.getPatternCount(), c.getMinUtilThreshold(), c.isAgreement() ? "OK" : "MISMATCH");
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing summary CSV: " + e.getMessage());
+        }
+    }
+
+    public static void writeJson(String path, List<ExperimentCell> cells) {
+        try (PrintWriter pw = new PrintWriter(new FileWriter(prepare(path)))) {
+            pw.println("[");
+            for (int i = 0; i < cells.size(); i++) {
+                ExperimentCell c = cells.get(i);
+                pw.printf(Locale.ROOT,
+                    "  {\"algorithm\": \"%s\", \"dataset\": \"%s\", \"k\": %d, \"status\": \"%s\", \"samples\": %d, "
+                    + "\"runtimeMs\": {\"median\": %s, \"p90\": %s, \"stdDev\": %s}, "
+                    + "\"memoryMb\": {\"median\": %s, \"p90\": %s, \"stdDev\": %s}, "
+                    + "\"patternCount\": %d, \"minUtilThreshold\": %s, \"agreement\": %b}%s%n",
+                    c.getAlgorithm(), c.getDataset(), c.getK(), c.getStatus(), c.getSampleCount(),
+                    json(c.getRuntimeMedian()), json(c.getRuntimeP90()), json(c.getRuntimeStdDev()),
+                    json(c.getMemoryMedian()), json(c.getMemoryP90()), json(c.getMemoryStdDev()),
+                    c.getPatternCount(), json(c.getMinUtilThreshold()), c.isAgreement(),
+                    i + 1 < cells.size() ? "," : "");
+            }
+            pw.println("]");
+        } catch (IOException e) {
+            System.err.println("Error writing summary JSON: " + e.getMessage());
+        }
+    }
+
+    private static File prepare(String path) {
+        File file = new File(path);
+        if (file.getParentFile() != null && !file.getParentFile().exists()) {
+            file.getParentFile().mkdirs();
+        }
+        return file;
+    }
+
+    // JSON has no NaN literal
+    private static String json(double value) {
+        return Double.isNaN(value) ? "null" : String.format(Locale.ROOT, "%.5f", value);
+    }
+}
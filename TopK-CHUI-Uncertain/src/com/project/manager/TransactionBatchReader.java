@@ -0,0 +1,68 @@
+package com.project.manager;
+
+import com.project.model.Transaction;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a DataLoader-format file as a stream of fixed-size transaction batches,
+ * holding only one batch in memory at a time (offline driver for the stream miners).
+ */
+public class TransactionBatchReader implements Iterator<List<Transaction>>, Closeable {
+    private final BufferedReader reader;
+    private final int batchSize;
+    private List<Transaction> next;
+
+    public TransactionBatchReader(String path, int batchSize) throws IOException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be >= 1");
+        }
+        this.reader = new BufferedReader(new FileReader(path));
+        this.batchSize = batchSize;
+        this.next = readBatch();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public List<Transaction> next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        List<Transaction> batch = next;
+        next = readBatch();
+        return batch;
+    }
+
+    private List<Transaction> readBatch() {
+        List<Transaction> batch = new ArrayList<>(batchSize);
+        try {
+            String line;
+            while (batch.size() < batchSize && (line = reader.readLine()) != null) {
+                Transaction t = DataLoader.parseTransaction(line);
+                if (t != null) {
+                    batch.add(t);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return batch.isEmpty() ? null : batch;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Container for the collection of transactions to be mined.
@@ -11,19 +12,60 @@ import java.util.Map;
  */
 public class Dataset {
     private List<Transaction> transactions;
+    private final OffHeapTransactions offHeap; // Same list when stored off-heap, else null
     private int maxItemId;
+    private VerticalIndex verticalIndex; // Lazily built, shared across runs
+    private final Map<String, Object> derived = new HashMap<>(); // Warm miner structures
+
+    // Running 128-bit content hash, folded in as transactions are added
+    private long fingerprintHigh = 0x6A09E667F3BCC908L;
+    private long fingerprintLow = 0xBB67AE8584CAA73BL;
 
     public Dataset() {
         this.transactions = new ArrayList<>();
+        this.offHeap = null;
         this.maxItemId = 0;
     }
 
+    private Dataset(OffHeapTransactions store) {
+        this.transactions = store;
+        this.offHeap = store;
+        this.maxItemId = 0;
+    }
+
+    /**
+     * Creates an empty dataset whose transactions are kept in direct (off-heap) buffers.
+     * Added transactions are copied in and can be discarded; getTransactions() then
+     * materializes short-lived copies, so prefer the per-item accessors in hot loops.
+     */
+    public static Dataset offHeap() {
+        return new Dataset(new OffHeapTransactions());
+    }
+
+    public boolean isOffHeap() {
+        return offHeap != null;
+    }
+
+    /** Direct memory held by the off-heap store (0 for heap datasets) */
+    public long getOffHeapBytes() {
+        return offHeap != null ? offHeap.getReservedBytes() : 0;
+    }
+
     /**
      * Calculates Expected Transaction Weighted Utilization (ETWU) for all items.
      * ETWU(i) = sum of Expected Transaction Utilities (ETU) of all transactions containing i.
      */
     public Map<Integer, Double> calculateTWUs() {
         Map<Integer, Double> mapItemToTWU = new HashMap<>();
+        if (offHeap != null) {
+            for (int tid = 0; tid < offHeap.size(); tid++) {
+                double etu = offHeap.getExpectedTransactionUtility(tid);
+                for (int pos = 0, length = offHeap.getLength(tid); pos < length; pos++) {
+                    mapItemToTWU.merge(offHeap.getItemId(tid, pos), etu, Double::sum);
+                }
+            }
+            return mapItemToTWU;
+        }
         for (Transaction t : transactions) {
             double etu = t.getExpectedTransactionUtility();
             for (Item item : t.getItems()) {
@@ -36,6 +78,78 @@ public class Dataset {
 
     public void addTransaction(Transaction transaction) {
         this.transactions.add(transaction);
+        this.verticalIndex = null; // Invalidate: TID lists no longer cover all transactions
+        this.derived.clear();
+
+        mixFingerprint(Double.doubleToLongBits(transaction.getTransactionUtility()));
+        mixFingerprint(transaction.getItems().size());
+        for (Item item : transaction.getItems()) {
+            mixFingerprint(item.getItemId());
+            mixFingerprint(Double.doubleToLongBits(item.getUtility()));
+            mixFingerprint(Double.doubleToLongBits(item.getProbability()));
+        }
+    }
+
+    /**
+     * Content fingerprint of the transactions added so far (order-sensitive).
+     * Any appended transaction changes it, so results keyed by it are invalidated automatically.
+     * Transactions must be added through addTransaction for this to hold.
+     * @return 32 hex characters.
+     */
+    public String getFingerprint() {
+        return String.format("%016x%016x", fingerprintHigh, fingerprintLow ^ transactions.size());
+    }
+
+    // Two independently seeded lanes with a 64-bit finalizer (SplitMix64 style)
+    private void mixFingerprint(long value) {
+        fingerprintHigh = mix64(fingerprintHigh ^ value) + 0x9E3779B97F4A7C15L;
+        fingerprintLow = mix64(Long.rotateLeft(fingerprintLow, 23) + value * 0xC2B2AE3D27D4EB4FL);
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns the vertical TID-list index of this dataset, building it on first use.
+     * The index is cached so repeated runs (and different K values) reuse it.
+     */
+    public synchronized VerticalIndex getVerticalIndex() {
+        if (verticalIndex == null) {
+            verticalIndex = new VerticalIndex(this);
+        }
+        return verticalIndex;
+    }
+
+    /**
+     * Returns a structure derived from this dataset, building it on first use.
+     * Used by miners in warm-start mode to keep first-level structures between runs;
+     * the value is shared by concurrent runs and must not be modified.
+     * Cleared whenever a transaction is added.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T getDerived(String key, Function<Dataset, T> builder) {
+        Object value = derived.get(key);
+        if (value == null) {
+            value = builder.apply(this);
+            derived.put(key, value);
+        }
+        return (T) value;
+    }
+
+    /**
+     * Utility of the item at position pos (items sorted by id) of transaction tid,
+     * read without materializing the transaction when stored off-heap.
+     */
+    public double getItemUtility(int tid, int pos) {
+        return offHeap != null ? offHeap.getUtility(tid, pos) : transactions.get(tid).getItems().get(pos).getUtility();
+    }
+
+    /** Probability of the item at position pos of transaction tid (see getItemUtility) */
+    public double getItemProbability(int tid, int pos) {
+        return offHeap != null ? offHeap.getProbability(tid, pos) : transactions.get(tid).getItems().get(pos).getProbability();
     }
 
     public List<Transaction> getTransactions() {
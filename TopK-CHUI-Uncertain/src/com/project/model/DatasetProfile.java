@@ -0,0 +1,103 @@
+package com.project.model;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Shape of a dataset, measured in one pass: size, alphabet, transaction lengths,
+ * existential probabilities and how unevenly the TWU is spread over the items.
+ * Used to choose a miner (see AlgorithmSelector); cache it with
+ * {@code db.getDerived(DatasetProfile.KEY, DatasetProfile::of)}.
+ */
+public class DatasetProfile {
+    public static final String KEY = "profile";
+
+    private final int transactionCount;
+    private final int itemCount;           // Distinct items
+    private final double averageLength;
+    private final int maxLength;
+    private final double density;          // averageLength / itemCount
+    private final double meanProbability;
+    private final double probabilityStdDev;
+    private final double certainShare;     // Share of item occurrences with probability 1
+    private final double twuSkew;          // Gini coefficient of the item TWUs (0 = even)
+
+    public DatasetProfile(int transactionCount, int itemCount, double averageLength, int maxLength,
+                          double meanProbability, double probabilityStdDev, double certainShare, double twuSkew) {
+        this.transactionCount = transactionCount;
+        this.itemCount = itemCount;
+        this.averageLength = averageLength;
+        this.maxLength = maxLength;
+        this.density = itemCount == 0 ? 0 : averageLength / itemCount;
+        this.meanProbability = meanProbability;
+        this.probabilityStdDev = probabilityStdDev;
+        this.certainShare = certainShare;
+        this.twuSkew = twuSkew;
+    }
+
+    public static DatasetProfile of(Dataset db) {
+        long occurrences = 0;
+        int maxLength = 0;
+        long certain = 0;
+        double sumProbability = 0;
+        double sumSquaredProbability = 0;
+        for (Transaction t : db.getTransactions()) {
+            maxLength = Math.max(maxLength, t.getItems().size());
+            for (Item item : t.getItems()) {
+                double p = item.getProbability();
+                occurrences++;
+                sumProbability += p;
+                sumSquaredProbability += p * p;
+                if (p >= 1.0) {
+                    certain++;
+                }
+            }
+        }
+
+        Map<Integer, Double> twus = db.calculateTWUs();
+        int transactions = db.getTransactions().size();
+        double mean = occurrences == 0 ? 0 : sumProbability / occurrences;
+        double variance = occurrences == 0 ? 0 : Math.max(0, sumSquaredProbability / occurrences - mean * mean);
+        return new DatasetProfile(transactions, twus.size(),
+                transactions == 0 ? 0 : (double) occurrences / transactions, maxLength,
+                mean, Math.sqrt(variance), occurrences == 0 ? 0 : (double) certain / occurrences,
+                gini(twus.values().stream().mapToDouble(Double::doubleValue).toArray()));
+    }
+
+    // Gini coefficient: sum over sorted values of (2i - n - 1) * x_i / (n * sum)
+    private static double gini(double[] values) {
+        int n = values.length;
+        double total = Arrays.stream(values).sum();
+        if (n < 2 || total <= 0) {
+            return 0;
+        }
+        Arrays.sort(values);
+        double weighted = 0;
+        for (int i = 0; i < n; i++) {
+            weighted += (2.0 * (i + 1) - n - 1) * values[i];
+        }
+        return weighted / (n * total);
+    }
+
+    public int getTransactionCount() { return transactionCount; }
+    public int getItemCount() { return itemCount; }
+    public double getAverageLength() { return averageLength; }
+    public int getMaxLength() { return maxLength; }
+    public double getDensity() { return density; }
+    public double getMeanProbability() { return meanProbability; }
+    public double getProbabilityStdDev() { return probabilityStdDev; }
+    public double getCertainShare() { return certainShare; }
+    public double getTwuSkew() { return twuSkew; }
+
+    /** Item occurrences over all transactions */
+    public long getOccurrences() {
+        return Math.round(averageLength * transactionCount);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("transactions=%d items=%d avgLength=%.2f maxLength=%d density=%.4f "
+                + "probability=%.3f+-%.3f certain=%.3f twuSkew=%.3f", transactionCount, itemCount, averageLength,
+                maxLength, density, meanProbability, probabilityStdDev, certainShare, twuSkew);
+    }
+}
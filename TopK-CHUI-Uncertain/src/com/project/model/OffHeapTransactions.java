@@ -0,0 +1,134 @@
+package com.project.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transaction store outside the Java heap, in direct ByteBuffers (one column per field:
+ * item ids, utilities, probabilities, plus a row start and the utilities per transaction).
+ * The garbage collector sees a handful of buffer objects instead of one Transaction and
+ * its Items per row, so full GCs during mining do not scale with the dataset.
+ *
+ * As a List it is the transaction list of an off-heap Dataset: get(tid) materializes a
+ * short-lived Transaction, add appends a copy. Hot lookups should use the per-item
+ * accessors, which read the buffers directly. Reads use absolute gets only, so a
+ * loaded store can be shared by concurrent runs.
+ */
+public class OffHeapTransactions extends AbstractList<Transaction> {
+    private static final int INITIAL_ROWS = 1024;
+    private static final int INITIAL_ITEMS = 8192;
+
+    private ByteBuffer rowStarts = allocate(INITIAL_ROWS + 1, Integer.BYTES); // tid -> first item slot
+    private ByteBuffer transactionUtilities = allocate(INITIAL_ROWS, Double.BYTES);
+    private ByteBuffer expectedUtilities = allocate(INITIAL_ROWS, Double.BYTES);
+    private ByteBuffer itemIds = allocate(INITIAL_ITEMS, Integer.BYTES);
+    private ByteBuffer utilities = allocate(INITIAL_ITEMS, Double.BYTES);
+    private ByteBuffer probabilities = allocate(INITIAL_ITEMS, Double.BYTES);
+
+    private int rows;
+    private int slots;
+
+    private static ByteBuffer allocate(int count, int width) {
+        long bytes = (long) count * width;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Off-heap column exceeds 2 GB (" + count + " entries)");
+        }
+        return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int needed, int width) {
+        int capacity = buffer.capacity() / width;
+        if (needed <= capacity) {
+            return buffer;
+        }
+        ByteBuffer grown = allocate(Math.max(needed, (int) Math.min(Integer.MAX_VALUE / width, 2L * capacity)), width);
+        grown.put(buffer.duplicate().clear());
+        return grown;
+    }
+
+    /**
+     * Appends a copy of the transaction (its items are already sorted by id).
+     */
+    @Override
+    public boolean add(Transaction transaction) {
+        List<Item> items = transaction.getItems();
+        rowStarts = grow(rowStarts, rows + 2, Integer.BYTES);
+        transactionUtilities = grow(transactionUtilities, rows + 1, Double.BYTES);
+        expectedUtilities = grow(expectedUtilities, rows + 1, Double.BYTES);
+        itemIds = grow(itemIds, slots + items.size(), Integer.BYTES);
+        utilities = grow(utilities, slots + items.size(), Double.BYTES);
+        probabilities = grow(probabilities, slots + items.size(), Double.BYTES);
+
+        for (Item item : items) {
+            itemIds.putInt(slots * Integer.BYTES, item.getItemId());
+            utilities.putDouble(slots * Double.BYTES, item.getUtility());
+            probabilities.putDouble(slots * Double.BYTES, item.getProbability());
+            slots++;
+        }
+        transactionUtilities.putDouble(rows * Double.BYTES, transaction.getTransactionUtility());
+        expectedUtilities.putDouble(rows * Double.BYTES, transaction.getExpectedTransactionUtility());
+        rows++;
+        rowStarts.putInt(rows * Integer.BYTES, slots);
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Materializes transaction tid as heap objects (for code that walks Transactions).
+     */
+    @Override
+    public Transaction get(int tid) {
+        int length = getLength(tid);
+        int start = start(tid);
+        List<Item> items = new ArrayList<>(length);
+        int[] ids = new int[length];
+        for (int pos = 0; pos < length; pos++) {
+            int slot = start + pos;
+            ids[pos] = itemIds.getInt(slot * Integer.BYTES);
+            items.add(new Item(ids[pos], utilities.getDouble(slot * Double.BYTES),
+                               probabilities.getDouble(slot * Double.BYTES)));
+        }
+        return new Transaction(items, ids, transactionUtilities.getDouble(tid * Double.BYTES),
+                               expectedUtilities.getDouble(tid * Double.BYTES));
+    }
+
+    @Override
+    public int size() {
+        return rows;
+    }
+
+    private int start(int tid) {
+        return rowStarts.getInt(tid * Integer.BYTES);
+    }
+
+    /** Number of items of transaction tid */
+    public int getLength(int tid) {
+        return rowStarts.getInt((tid + 1) * Integer.BYTES) - start(tid);
+    }
+
+    /** Id of the item at position pos (items sorted by id) of transaction tid */
+    public int getItemId(int tid, int pos) {
+        return itemIds.getInt((start(tid) + pos) * Integer.BYTES);
+    }
+
+    public double getUtility(int tid, int pos) {
+        return utilities.getDouble((start(tid) + pos) * Double.BYTES);
+    }
+
+    public double getProbability(int tid, int pos) {
+        return probabilities.getDouble((start(tid) + pos) * Double.BYTES);
+    }
+
+    public double getExpectedTransactionUtility(int tid) {
+        return expectedUtilities.getDouble(tid * Double.BYTES);
+    }
+
+    /** Direct memory reserved by the columns (capacity, not only the used part) */
+    public long getReservedBytes() {
+        return (long) rowStarts.capacity() + transactionUtilities.capacity() + expectedUtilities.capacity()
+                + itemIds.capacity() + utilities.capacity() + probabilities.capacity();
+    }
+}
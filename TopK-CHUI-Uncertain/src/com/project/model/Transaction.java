@@ -33,6 +33,17 @@ public class Transaction {
         this.expectedTransactionUtility = sum;
     }
 
+    /**
+     * Rebuilds a transaction whose items are already sorted and whose utilities are known
+     * (used by the off-heap store, no sorting or summing).
+     */
+    Transaction(List<Item> items, int[] itemIds, double transactionUtility, double expectedTransactionUtility) {
+        this.items = items;
+        this.itemIds = itemIds;
+        this.transactionUtility = transactionUtility;
+        this.expectedTransactionUtility = expectedTransactionUtility;
+    }
+
     public List<Item> getItems() { return items; }
     public int[] getItemIds() { return itemIds; } 
     public double getTransactionUtility() { return transactionUtility; }
@@ -0,0 +1,72 @@
+package com.project.model;
+
+import java.util.List;
+
+/**
+ * Vertical (item -> transactions) view of a Dataset.
+ * For every item stores the sorted list of TIDs containing it, together with the
+ * position of the item inside each transaction's sorted item list.
+ * Built once per Dataset and shared by every run mining that Dataset.
+ */
+public class VerticalIndex {
+    private static final int[] EMPTY = new int[0];
+
+    private final int[][] tidLists;      // itemId -> ascending TIDs
+    private final int[][] positionLists; // itemId -> index of the item in Transaction.getItems()
+
+    public VerticalIndex(Dataset db) {
+        List<Transaction> transactions = db.getTransactions();
+        int maxItemId = 0;
+        for (Transaction t : transactions) {
+            int[] ids = t.getItemIds();
+            if (ids.length > 0 && ids[ids.length - 1] > maxItemId) {
+                maxItemId = ids[ids.length - 1];
+            }
+        }
+
+        // Pass 1: Count occurrences to size the lists exactly
+        int[] counts = new int[maxItemId + 1];
+        for (Transaction t : transactions) {
+            for (int itemId : t.getItemIds()) {
+                counts[itemId]++;
+            }
+        }
+
+        this.tidLists = new int[maxItemId + 1][];
+        this.positionLists = new int[maxItemId + 1][];
+        for (int item = 0; item <= maxItemId; item++) {
+            tidLists[item] = counts[item] == 0 ? EMPTY : new int[counts[item]];
+            positionLists[item] = counts[item] == 0 ? EMPTY : new int[counts[item]];
+        }
+
+        // Pass 2: Fill lists (TIDs are visited in ascending order, so lists stay sorted)
+        int[] fill = new int[maxItemId + 1];
+        int tid = 0;
+        for (Transaction t : transactions) {
+            int[] ids = t.getItemIds();
+            for (int pos = 0; pos < ids.length; pos++) {
+                int itemId = ids[pos];
+                tidLists[itemId][fill[itemId]] = tid;
+                positionLists[itemId][fill[itemId]] = pos;
+                fill[itemId]++;
+            }
+            tid++;
+        }
+    }
+
+    /** Sorted TIDs of the transactions containing the item (empty if unknown). */
+    public int[] getTids(int itemId) {
+        if (itemId < 0 || itemId >= tidLists.length) return EMPTY;
+        return tidLists[itemId];
+    }
+
+    /** Positions of the item in the transactions returned by {@link #getTids(int)}. */
+    public int[] getPositions(int itemId) {
+        if (itemId < 0 || itemId >= positionLists.length) return EMPTY;
+        return positionLists[itemId];
+    }
+
+    public int getSupportCount(int itemId) {
+        return getTids(itemId).length;
+    }
+}
@@ -0,0 +1,324 @@
+package com.project.service;
+
+import com.project.algorithms.AlgorithmFactory;
+import com.project.algorithms.base.MiningAlgorithm;
+import com.project.algorithms.base.MiningConstraints;
+import com.project.algorithms.base.SearchStrategy;
+import com.project.algorithms.base.Stats;
+import com.project.manager.DataLoader;
+import com.project.model.Dataset;
+import com.project.model.Itemset;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Long-lived mining service: datasets are loaded once and kept warm (TWUs and first-level
+ * structures cached on the Dataset, JIT already compiled), and Top-K queries are answered
+ * over HTTP on localhost. Mining runs on a bounded executor; when it is saturated,
+ * requests are refused with 503 instead of queueing without limit.
+ *
+ * GET /topk?dataset=foodmart&algorithm=U-EFIM&k=100[&timeLimitMs=60000]
+ *          [&require=3,5][&exclude=7][&maxLength=4][&minSupport=2.5][&strategy=BEST_FIRST]
+ * GET /datasets
+ * GET /load?name=liquor&path=data/liquor.txt   (path must lie inside the data directory)
+ *
+ * Usage: java -cp bin com.project.service.MiningService port=8080 threads=4 queue=16 dataDir=data data=foodmart:data/foodmart.txt
+ */
+public class MiningService {
+
+    private static final long DEFAULT_TIME_LIMIT_MILLIS = 60_000;
+    private static final long WARMUP_TIME_LIMIT_MILLIS = 10_000;
+
+    private final Map<String, Dataset> datasets = new ConcurrentHashMap<>();
+    /** Canonical directory that /load may read from */
+    private final File dataDir;
+    private final ThreadPoolExecutor miningPool;
+    private final ExecutorService httpPool;
+    private HttpServer server;
+
+    /**
+     * @param threads Concurrent mining runs.
+     * @param queueCapacity Requests allowed to wait for a mining thread.
+     */
+    public MiningService(int threads, int queueCapacity) throws IOException {
+        this(threads, queueCapacity, new File("data"));
+    }
+
+    /**
+     * @param threads Concurrent mining runs.
+     * @param queueCapacity Requests allowed to wait for a mining thread (loads included).
+     * @param dataDir The only directory /load may read from.
+     */
+    public MiningService(int threads, int queueCapacity, File dataDir) throws IOException {
+        this.dataDir = dataDir.getCanonicalFile();
+        this.miningPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.AbortPolicy());
+        // Every accepted request holds an HTTP thread while it waits for its result
+        this.httpPool = Executors.newFixedThreadPool(threads + queueCapacity + 2);
+    }
+
+    /**
+     * Loads a dataset and warms it up: one short run per algorithm builds the cached
+     * first-level structures and compiles the hot paths. The dataset is registered only
+     * once it is warm.
+     * @throws IllegalArgumentException If the file is missing or yields no transactions.
+     */
+    public void loadDataset(String name, String path) {
+        if (!new File(path).isFile()) {
+            throw new IllegalArgumentException("File not found: " + path);
+        }
+        long start = System.currentTimeMillis();
+        Dataset db = DataLoader.load(path);
+        if (db.getTransactions().isEmpty()) {
+            throw new IllegalArgumentException("No transactions in " + path);
+        }
+        for (String algorithm : AlgorithmFactory.NAMES) {
+            MiningAlgorithm algo = AlgorithmFactory.create(algorithm);
+            algo.setWarmStart(true);
+            algo.setTimeLimit(WARMUP_TIME_LIMIT_MILLIS);
+            algo.runAlgorithm(db, 1);
+        }
+        datasets.put(name, db);
+        System.out.printf("Loaded %s (%d transactions%s) in %dms%n", name, db.getTransactions().size(),
+                db.isOffHeap() ? ", " + db.getOffHeapBytes() / 1024 + " KB off-heap" : "",
+                System.currentTimeMillis() - start);
+    }
+
+    public void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/topk", this::handleTopK);
+        server.createContext("/datasets", this::handleDatasets);
+        server.createContext("/load", this::handleLoad);
+        server.setExecutor(httpPool);
+        server.start();
+        System.out.println("Mining service listening on http://localhost:" + server.getAddress().getPort());
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+        miningPool.shutdownNow();
+        httpPool.shutdownNow();
+    }
+
+    private void handleTopK(HttpExchange exchange) throws IOException {
+        Map<String, String> params = queryParams(exchange);
+        String name = params.get("dataset");
+        Dataset db = name != null ? datasets.get(name) : null;
+        if (db == null) {
+            respond(exchange, 404, error("Unknown dataset: " + name));
+            return;
+        }
+
+        String algorithm = params.getOrDefault("algorithm", "U-EFIM");
+        MiningAlgorithm algo;
+        int k;
+        long timeLimit;
+        try {
+            algo = AlgorithmFactory.create(algorithm);
+            k = Integer.parseInt(params.getOrDefault("k", "100"));
+            timeLimit = Long.parseLong(params.getOrDefault("timeLimitMs", String.valueOf(DEFAULT_TIME_LIMIT_MILLIS)));
+            if (k < 1) throw new IllegalArgumentException("k must be >= 1");
+            algo.setConstraints(parseConstraints(params));
+            if (params.containsKey("strategy")) {
+                algo.setSearchStrategy(SearchStrategy.valueOf(params.get("strategy").toUpperCase(Locale.ROOT)));
+            }
+        } catch (IllegalArgumentException e) {
+            respond(exchange, 400, error(e.getMessage()));
+            return;
+        }
+        algo.setWarmStart(true);
+        algo.setTimeLimit(timeLimit);
+
+        Future<Stats> future;
+        try {
+            future = miningPool.submit(() -> algo.runAlgorithm(db, k));
+        } catch (RejectedExecutionException e) {
+            respond(exchange, 503, error("Too many concurrent requests"));
+            return;
+        }
+
+        try {
+            Stats stats = future.get();
+            respond(exchange, 200, toJson(name, algorithm, k, algo.getParameters(), stats));
+        } catch (ExecutionException e) {
+            respond(exchange, 500, error(String.valueOf(e.getCause())));
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, error("Service shutting down"));
+        }
+    }
+
+    private void handleDatasets(HttpExchange exchange) throws IOException {
+        StringBuilder sb = new StringBuilder("[");
+        for (Map.Entry<String, Dataset> entry : new TreeMap<>(datasets).entrySet()) {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(String.format(Locale.ROOT, "{\"name\": \"%s\", \"transactions\": %d, \"fingerprint\": \"%s\"}",
+                    escape(entry.getKey()), entry.getValue().getTransactions().size(), entry.getValue().getFingerprint()));
+        }
+        respond(exchange, 200, sb.append("]").toString());
+    }
+
+    private void handleLoad(HttpExchange exchange) throws IOException {
+        Map<String, String> params = queryParams(exchange);
+        String name = params.get("name");
+        String path = params.get("path");
+        if (name == null || path == null) {
+            respond(exchange, 400, error("name and path are required"));
+            return;
+        }
+        File file = resolveDataFile(path);
+        if (file == null) {
+            respond(exchange, 403, error("path must be inside the data directory"));
+            return;
+        }
+        if (!file.isFile()) {
+            respond(exchange, 404, error("File not found: " + path));
+            return;
+        }
+
+        // Loading and warm-up are mining work: they share the bounded pool with /topk
+        Future<?> future;
+        try {
+            future = miningPool.submit(() -> loadDataset(name, file.getPath()));
+        } catch (RejectedExecutionException e) {
+            respond(exchange, 503, error("Too many concurrent requests"));
+            return;
+        }
+
+        try {
+            future.get();
+            respond(exchange, 200, "{\"loaded\": \"" + escape(name) + "\"}");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IllegalArgumentException) {
+                respond(exchange, 400, error(e.getCause().getMessage()));
+            } else {
+                respond(exchange, 500, error(String.valueOf(e.getCause())));
+            }
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, error("Service shutting down"));
+        }
+    }
+
+    /**
+     * @return The canonical file, or null if the path resolves (after "..", symlinks) to
+     *         somewhere outside the data directory.
+     */
+    private File resolveDataFile(String path) throws IOException {
+        File file = new File(path).getCanonicalFile();
+        return file.toPath().startsWith(dataDir.toPath()) ? file : null;
+    }
+
+    private static MiningConstraints parseConstraints(Map<String, String> params) {
+        MiningConstraints constraints = MiningConstraints.NONE;
+        if (params.containsKey("require")) {
+            constraints = constraints.require(MiningConstraints.parseItems(params.get("require")));
+        }
+        if (params.containsKey("exclude")) {
+            constraints = constraints.exclude(MiningConstraints.parseItems(params.get("exclude")));
+        }
+        if (params.containsKey("maxLength")) {
+            constraints = constraints.maxLength(Integer.parseInt(params.get("maxLength")));
+        }
+        if (params.containsKey("minSupport")) {
+            constraints = constraints.minExpectedSupport(Double.parseDouble(params.get("minSupport")));
+        }
+        return constraints;
+    }
+
+    private static String toJson(String dataset, String algorithm, int k, String constraints, Stats stats) {
+        StringBuilder sb = new StringBuilder(256 + stats.getPatterns().size() * 64);
+        sb.append(String.format(Locale.ROOT,
+                "{\"dataset\": \"%s\", \"algorithm\": \"%s\", \"k\": %d, \"constraints\": \"%s\", "
+                + "\"runtimeMs\": %d, \"completed\": %b, "
+                + "\"minUtilThreshold\": %.5f, \"patternCount\": %d, \"patterns\": [",
+                escape(dataset), escape(algorithm), k, escape(constraints), stats.getRuntime(), stats.isCompleted(),
+                stats.getMinUtilThreshold(), stats.getPatternCount()));
+        List<Itemset> patterns = stats.getPatterns();
+        for (int i = 0; i < patterns.size(); i++) {
+            Itemset p = patterns.get(i);
+            if (i > 0) sb.append(", ");
+            sb.append("{\"items\": ").append(Arrays.toString(p.getItems()))
+              .append(String.format(Locale.ROOT, ", \"utility\": %.5f, \"expectedSupport\": %.5f}",
+                      p.getUtility(), p.getExpectedSupport()));
+        }
+        return sb.append("]}").toString();
+    }
+
+    private static Map<String, String> queryParams(HttpExchange exchange) throws UnsupportedEncodingException {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            String[] kv = pair.split("=", 2);
+            if (kv.length == 2) {
+                params.put(URLDecoder.decode(kv[0], "UTF-8"), URLDecoder.decode(kv[1], "UTF-8"));
+            }
+        }
+        return params;
+    }
+
+    private static String error(String message) {
+        return "{\"error\": \"" + escape(message) + "\"}";
+    }
+
+    private static String escape(String text) {
+        return text == null ? "" : text.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        options.put("port", "8080");
+        options.put("threads", String.valueOf(Math.max(1, Runtime.getRuntime().availableProcessors() / 2)));
+        options.put("queue", "16");
+        options.put("dataDir", "data");
+        options.put("data", "foodmart:data/foodmart.txt");
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            if (kv.length == 2) {
+                options.put(kv[0], kv[1]);
+            } else {
+                System.err.println("Ignoring argument (expected key=value): " + arg);
+            }
+        }
+
+        MiningService service = new MiningService(Integer.parseInt(options.get("threads")),
+                Integer.parseInt(options.get("queue")), new File(options.get("dataDir")));
+        for (String entry : options.get("data").split(",")) {
+            String[] nameAndPath = entry.split(":", 2);
+            if (nameAndPath.length != 2) {
+                System.err.println("Ignoring dataset (expected name:path): " + entry);
+                continue;
+            }
+            service.loadDataset(nameAndPath[0], nameAndPath[1]);
+        }
+        service.start(Integer.parseInt(options.get("port")));
+        Runtime.getRuntime().addShutdownHook(new Thread(service::stop));
+    }
+}
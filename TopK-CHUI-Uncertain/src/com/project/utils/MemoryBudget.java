@@ -0,0 +1,58 @@
+package com.project.utils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Heap budget of a run. Current heap usage includes garbage, so it only decides when to
+ * look closer; the budget counts as nearly used when the heap still in use after the last
+ * collections (live data) reaches 90% of it.
+ */
+public class MemoryBudget {
+    private static final double NEAR_FRACTION = 0.9;
+
+    private final long bytes;
+    private final long nearBytes;
+    private final List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+
+    public MemoryBudget(long bytes) {
+        if (bytes <= 0) {
+            throw new IllegalArgumentException("Memory budget must be positive: " + bytes);
+        }
+        this.bytes = bytes;
+        this.nearBytes = (long) (bytes * NEAR_FRACTION);
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                heapPools.add(pool);
+            }
+        }
+    }
+
+    /** A budget of the given fraction of the maximum heap (-Xmx) */
+    public static MemoryBudget ofMaxHeap(double fraction) {
+        return new MemoryBudget((long) (Runtime.getRuntime().maxMemory() * fraction));
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public boolean isNearLimit() {
+        Runtime runtime = Runtime.getRuntime();
+        if (runtime.totalMemory() - runtime.freeMemory() < nearBytes) {
+            return false;
+        }
+        long live = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            MemoryUsage afterGc = pool.getCollectionUsage();
+            if (afterGc != null) {
+                live += afterGc.getUsed();
+            }
+        }
+        return live >= nearBytes;
+    }
+}
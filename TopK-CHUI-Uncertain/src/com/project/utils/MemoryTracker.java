@@ -0,0 +1,137 @@
+package com.project.utils;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tracks the memory behaviour of one algorithm run.
+ * Peak heap: the heap only grows between collections, so its maximum is reached right before
+ * a GC; every GC notification reports that pre-GC usage, and the final usage covers the tail.
+ * Allocation: total bytes allocated by the mining thread (HotSpot ThreadMXBean extension).
+ */
+public class MemoryTracker {
+    private static final double MB = 1024d * 1024d;
+
+    private final Set<String> heapPools = new HashSet<>();
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+    private final NotificationListener gcListener = this::onGarbageCollection;
+
+    private boolean running;
+    private volatile long peakHeapBytes;
+    private long threadId;
+    private long allocatedAtStart;
+    private long allocatedBytes;
+
+    public MemoryTracker() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                heapPools.add(pool.getName());
+            }
+        }
+    }
+
+    /**
+     * Starts tracking on the calling (mining) thread.
+     */
+    public void start() {
+        running = true;
+        peakHeapBytes = currentHeapBytes();
+        threadId = Thread.currentThread().getId();
+        allocatedAtStart = threadAllocatedBytes(threadId);
+
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter) {
+                NotificationEmitter emitter = (NotificationEmitter) gc;
+                emitter.addNotificationListener(gcListener, null, null);
+                emitters.add(emitter);
+            }
+        }
+    }
+
+    /**
+     * Stops tracking; must be called from the same thread as {@link #start()}.
+     * Further calls do nothing, so it can also be called from a finally block.
+     */
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(gcListener);
+            } catch (ListenerNotFoundException ignored) {
+                // Already removed
+            }
+        }
+        emitters.clear();
+
+        recordPeak(currentHeapBytes());
+        long allocatedNow = threadAllocatedBytes(threadId);
+        allocatedBytes = (allocatedNow >= 0 && allocatedAtStart >= 0) ? allocatedNow - allocatedAtStart : 0;
+    }
+
+    /** Peak heap in use during the run (MB) */
+    public double getPeakHeapMemory() {
+        return peakHeapBytes / MB;
+    }
+
+    /** Total bytes allocated by the mining thread during the run (MB) */
+    public double getAllocatedMemory() {
+        return allocatedBytes / MB;
+    }
+
+    private void onGarbageCollection(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info =
+            GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+
+        long beforeGc = 0;
+        for (Map.Entry<String, MemoryUsage> entry : info.getGcInfo().getMemoryUsageBeforeGc().entrySet()) {
+            if (heapPools.contains(entry.getKey())) {
+                beforeGc += entry.getValue().getUsed();
+            }
+        }
+        recordPeak(beforeGc);
+    }
+
+    // Called from the GC notification thread and the mining thread
+    private synchronized void recordPeak(long bytes) {
+        if (bytes > peakHeapBytes) {
+            peakHeapBytes = bytes;
+        }
+    }
+
+    private static long currentHeapBytes() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long threadAllocatedBytes(long threadId) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+            if (hotspot.isThreadAllocatedMemorySupported() && hotspot.isThreadAllocatedMemoryEnabled()) {
+                return hotspot.getThreadAllocatedBytes(threadId);
+            }
+        }
+        return -1;
+    }
+}
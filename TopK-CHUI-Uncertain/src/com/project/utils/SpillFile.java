@@ -0,0 +1,102 @@
+package com.project.utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory-mapped temp file holding a spilled structure: written once through a cursor,
+ * then read back (possibly several times) from recorded positions. The pages belong to
+ * the OS page cache, not the heap, and are written out to disk under memory pressure.
+ *
+ * The file is mapped in 64 MB windows that overlap by 8 bytes, so every int or double
+ * lies in a single window. Files go to -Dtopk.spill.dir (default: java.io.tmpdir).
+ */
+public class SpillFile {
+    private static final int WINDOW = 1 << 26;
+    private static final int OVERLAP = Double.BYTES;
+
+    private final Path path;
+    private final MappedByteBuffer[] windows;
+    private long position;
+
+    private SpillFile(Path path, MappedByteBuffer[] windows) {
+        this.path = path;
+        this.windows = windows;
+    }
+
+    /**
+     * Creates and maps a temp file of the given size.
+     */
+    public static SpillFile create(long bytes) {
+        Path dir = Paths.get(System.getProperty("topk.spill.dir", System.getProperty("java.io.tmpdir")));
+        Path path = null;
+        try {
+            path = Files.createTempFile(dir, "topk-spill", ".bin");
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                int count = (int) Math.max(1, (bytes + WINDOW - 1) / WINDOW);
+                MappedByteBuffer[] windows = new MappedByteBuffer[count];
+                for (int w = 0; w < count; w++) {
+                    long start = (long) w * WINDOW;
+                    long size = Math.min(WINDOW + OVERLAP, Math.max(bytes - start, 0));
+                    windows[w] = channel.map(FileChannel.MapMode.READ_WRITE, start, size);
+                    windows[w].order(ByteOrder.nativeOrder());
+                }
+                return new SpillFile(path, windows); // Mappings stay valid after the channel closes
+            }
+        } catch (IOException e) {
+            if (path != null) {
+                path.toFile().delete();
+            }
+            throw new UncheckedIOException("Cannot create spill file in " + dir, e);
+        }
+    }
+
+    /** Cursor of the next put or get */
+    public long position() {
+        return position;
+    }
+
+    public void position(long position) {
+        this.position = position;
+    }
+
+    public void putInt(int value) {
+        windows[(int) (position / WINDOW)].putInt((int) (position % WINDOW), value);
+        position += Integer.BYTES;
+    }
+
+    public void putDouble(double value) {
+        windows[(int) (position / WINDOW)].putDouble((int) (position % WINDOW), value);
+        position += Double.BYTES;
+    }
+
+    public int getInt() {
+        int value = windows[(int) (position / WINDOW)].getInt((int) (position % WINDOW));
+        position += Integer.BYTES;
+        return value;
+    }
+
+    public double getDouble() {
+        double value = windows[(int) (position / WINDOW)].getDouble((int) (position % WINDOW));
+        position += Double.BYTES;
+        return value;
+    }
+
+    /**
+     * Removes the file. Where a mapped file cannot be deleted (Windows), it is removed at exit.
+     */
+    public void delete() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            path.toFile().deleteOnExit();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.project.utils;
+
+/**
+ * Bulk expected-utility arithmetic over flat primitive arrays (scalar implementation).
+ *
+ * With -Dtopk.vector=true, {@link #INSTANCE} is the Vector API subclass from the vector/
+ * source root (compiled and run with --add-modules jdk.incubator.vector). When that class
+ * or module is missing, the scalar kernels are used. Vector sums are accumulated in a
+ * different order, so results may differ from the scalar ones in the last bits.
+ */
+public class UtilityKernels {
+    private static final String VECTOR_CLASS = "com.project.utils.VectorUtilityKernels";
+
+    /** Kernels used by the miners, chosen once per JVM */
+    public static final UtilityKernels INSTANCE = Boolean.getBoolean("topk.vector") ? loadVectorized() : new UtilityKernels();
+
+    /**
+     * The Vector API kernels, or the scalar ones (with a warning) when they cannot be loaded.
+     */
+    public static UtilityKernels loadVectorized() {
+        try {
+            return (UtilityKernels) Class.forName(VECTOR_CLASS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            System.err.println("Vector kernels unavailable (" + e + "), using scalar kernels");
+            return new UtilityKernels();
+        }
+    }
+
+    public boolean isVectorized() {
+        return false;
+    }
+
+    /** Sum of a[i] * b[i] for i in [0, length), e.g. EU = sum(utility * probability) */
+    public double dot(double[] a, double[] b, int length) {
+        double sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    /** Sum of a[i] for i in [0, length), e.g. expected support = sum(probability) */
+    public double sum(double[] a, int length) {
+        double sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += a[i];
+        }
+        return sum;
+    }
+}
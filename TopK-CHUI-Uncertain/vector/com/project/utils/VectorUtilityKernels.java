@@ -0,0 +1,55 @@
+package com.project.utils;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * UtilityKernels on the Java Vector API (jdk.incubator.vector), using the widest
+ * double vector of the CPU (4 lanes with AVX2, 8 with AVX-512). Loaded by
+ * UtilityKernels.loadVectorized; the tails shorter than a vector run scalar.
+ */
+public class VectorUtilityKernels extends UtilityKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public boolean isVectorized() {
+        return true;
+    }
+
+    @Override
+    public double dot(double[] a, double[] b, int length) {
+        int i = 0;
+        double sum = 0;
+        int upper = SPECIES.loopBound(length);
+        if (upper > 0) {
+            DoubleVector acc = DoubleVector.zero(SPECIES);
+            for (; i < upper; i += SPECIES.length()) {
+                acc = DoubleVector.fromArray(SPECIES, a, i).fma(DoubleVector.fromArray(SPECIES, b, i), acc);
+            }
+            sum = acc.reduceLanes(VectorOperators.ADD);
+        }
+        for (; i < length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public double sum(double[] a, int length) {
+        int i = 0;
+        double sum = 0;
+        int upper = SPECIES.loopBound(length);
+        if (upper > 0) {
+            DoubleVector acc = DoubleVector.zero(SPECIES);
+            for (; i < upper; i += SPECIES.length()) {
+                acc = acc.add(DoubleVector.fromArray(SPECIES, a, i));
+            }
+            sum = acc.reduceLanes(VectorOperators.ADD);
+        }
+        for (; i < length; i++) {
+            sum += a[i];
+        }
+        return sum;
+    }
+}